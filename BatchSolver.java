@@ -0,0 +1,155 @@
+package eecs2030.lab4;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A class that solves many boards at once using every available processor.
+ *
+ * <p>
+ * Implementation Details: The boards are split into ranges that are solved by
+ * tasks in a work-stealing fork-join pool. Every task borrows a
+ * <code>BoggleSolver</code> from the idle solvers of the batch solver for the
+ * boards of its range and returns it afterwards, so the visited masks, search
+ * path and de-duplication stamps of a solver are reused for every board it
+ * solves, and there are never more solvers than tasks running at once. Every
+ * task writes its results into its own slots of the result array, so the
+ * workers only synchronize to borrow and return a solver. The solvers belong
+ * to the batch solver, not to the threads of the pool, so they, and the
+ * dictionary they refer to, can be collected as soon as the batch solver is.
+ */
+public class BatchSolver {
+
+	/**
+	 * The largest number of boards solved by a single task.
+	 */
+	private static final int BATCH = 64;
+
+	private final ForkJoinPool pool;
+
+	private final Dictionary dictionary;
+
+	/**
+	 * The solvers that no task is using.
+	 */
+	private final ConcurrentLinkedQueue<BoggleSolver> idle = new ConcurrentLinkedQueue<BoggleSolver>();
+
+	/**
+	 * Initializes a batch solver that finds the words of the specified
+	 * dictionary using the common fork-join pool.
+	 *
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 */
+	public BatchSolver(Dictionary dictionary) {
+		this(dictionary, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Initializes a batch solver that finds the words of the specified
+	 * dictionary using the specified fork-join pool.
+	 *
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @param pool
+	 *            the pool whose threads solve the boards
+	 */
+	public BatchSolver(Dictionary dictionary, ForkJoinPool pool) {
+		this.pool = pool;
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * Returns an idle solver, or a new solver if every solver is in use.
+	 *
+	 * @return a solver that no other task is using
+	 */
+	private BoggleSolver borrow() {
+		BoggleSolver solver = this.idle.poll();
+		return solver != null ? solver : new BoggleSolver(this.dictionary);
+	}
+
+	/**
+	 * Returns a list of the solutions of the specified boards, in the order in
+	 * which the collection returns the boards.
+	 *
+	 * @param boards
+	 *            the boards to solve
+	 * @return an unmodifiable list of the solutions of the boards
+	 */
+	public List<Solution> solveAll(Collection<Board> boards) {
+		Board[] in = boards.toArray(new Board[0]);
+		Solution[] out = new Solution[in.length];
+		this.pool.invoke(new SolveTask(in, out, null, 0, in.length));
+		return Collections.unmodifiableList(Arrays.asList(out));
+	}
+
+	/**
+	 * Returns the total score of each of the specified boards, in the order in
+	 * which the collection returns the boards. Only the scores are computed, so
+	 * solving a board allocates nothing.
+	 *
+	 * @param boards
+	 *            the boards to score
+	 * @return the total score of each board
+	 */
+	public int[] scoreAll(Collection<Board> boards) {
+		Board[] in = boards.toArray(new Board[0]);
+		int[] out = new int[in.length];
+		this.pool.invoke(new SolveTask(in, null, out, 0, in.length));
+		return out;
+	}
+
+	/**
+	 * A task that solves a range of boards, splitting itself in two while the
+	 * range is larger than the batch size. The task stores a solution for each
+	 * board if <code>solutions</code> is not null, and only the score of each
+	 * board otherwise.
+	 */
+	private final class SolveTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Board[] boards;
+		private final Solution[] solutions;
+		private final int[] scores;
+		private final int from;
+		private final int to;
+
+		SolveTask(Board[] boards, Solution[] solutions, int[] scores, int from, int to) {
+			this.boards = boards;
+			this.solutions = solutions;
+			this.scores = scores;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= BATCH) {
+				BoggleSolver solver = BatchSolver.this.borrow();
+				try {
+					for (int i = this.from; i < this.to; i++) {
+						if (this.solutions != null) {
+							this.solutions[i] = solver.solution(this.boards[i]);
+						} else {
+							solver.count(this.boards[i]);
+							this.scores[i] = solver.getScore();
+						}
+					}
+				} finally {
+					BatchSolver.this.idle.offer(solver);
+				}
+				return;
+			}
+			int mid = (this.from + this.to) >>> 1;
+			invokeAll(new SolveTask(this.boards, this.solutions, this.scores, this.from, mid),
+					new SolveTask(this.boards, this.solutions, this.scores, mid, this.to));
+		}
+	}
+}
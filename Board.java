@@ -0,0 +1,220 @@
+package eecs2030.lab4;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the faces showing on a Boggle board.
+ *
+ * <p>
+ * Implementation Details: Each face is encoded as a single byte: the letters
+ * <code>A</code> through <code>Z</code> are encoded as 0 through 25, and the
+ * two-letter face <code>QU</code> is encoded as <code>QU</code> (26). The
+ * faces are stored in row-major order, in the same order as the dice returned
+ * by <code>Boggle.getDice</code>, and a board always has a square number of
+ * dice. Because a board cannot be modified once it
+ * has been created, one board can be handed to any number of clients without
+ * copying.
+ */
+public final class Board {
+
+	/**
+	 * The code of the two-letter face <code>"QU"</code>.
+	 */
+	public static final byte QU = 26;
+
+	/**
+	 * The face strings for each code.
+	 */
+	private static final String[] FACES = new String[QU + 1];
+
+	static {
+		for (int i = 0; i < 26; i++) {
+			FACES[i] = String.valueOf((char) ('A' + i));
+		}
+		FACES[QU] = "QU";
+	}
+
+	private final byte[] codes;
+
+	private final Grid grid;
+
+	/**
+	 * Initializes a board with the specified face codes. The array is not
+	 * copied, so the caller must not modify it afterwards.
+	 *
+	 * @param codes
+	 *            the face codes in row-major order
+	 * @throws IllegalArgumentException
+	 *             if the number of codes is not the number of dice on a
+	 *             square board of at most <code>Grid.MAXIMUM_SIZE</code> rows
+	 */
+	Board(byte[] codes) {
+		this.codes = codes;
+		this.grid = Grid.forCells(codes.length);
+	}
+
+	/**
+	 * Returns a board holding the current faces of the specified dice.
+	 *
+	 * @param dice
+	 *            a list of dice in row-major order
+	 * @return a board holding the current faces of the dice
+	 * @throws IllegalArgumentException
+	 *             if the current face of a die is not a single letter or
+	 *             <code>"QU"</code>, or the dice do not fill a square board
+	 */
+	public static Board of(List<Die> dice) {
+		byte[] codes = new byte[dice.size()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = encode(dice.get(i).getValue());
+		}
+		return new Board(codes);
+	}
+
+	/**
+	 * Returns the code of the specified face string. The case of the face
+	 * string is not important.
+	 *
+	 * @param face
+	 *            a single letter or <code>"QU"</code>
+	 * @return the code of the face
+	 * @throws IllegalArgumentException
+	 *             if the face is not a single letter or <code>"QU"</code>
+	 */
+	public static byte encode(String face) {
+		if (face.length() == 1) {
+			char c = Character.toUpperCase(face.charAt(0));
+			if (c >= 'A' && c <= 'Z') {
+				return (byte) (c - 'A');
+			}
+		} else if (face.equalsIgnoreCase("QU")) {
+			return QU;
+		}
+		throw new IllegalArgumentException("not a Boggle face: " + face);
+	}
+
+	/**
+	 * Returns the face string of the specified code.
+	 *
+	 * @param code
+	 *            a face code
+	 * @return the face string of the code
+	 */
+	public static String decode(int code) {
+		return FACES[code];
+	}
+
+	/**
+	 * Returns the number of dice on this board.
+	 *
+	 * @return the number of dice on this board
+	 */
+	public int size() {
+		return this.codes.length;
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of dice on this board.
+	 *
+	 * @return the number of rows of dice on this board
+	 */
+	public int rows() {
+		return this.grid.size();
+	}
+
+	/**
+	 * Returns the geometry of this board.
+	 *
+	 * @return the geometry of this board
+	 */
+	Grid grid() {
+		return this.grid;
+	}
+
+	/**
+	 * Returns the code of the face showing on the die with the specified index.
+	 *
+	 * @param idx
+	 *            the index of a die
+	 * @return the code of the face showing on the die
+	 */
+	public int code(int idx) {
+		return this.codes[idx];
+	}
+
+	/**
+	 * Returns the face string showing on the die with the specified index. The
+	 * returned string is shared, so this method does not allocate.
+	 *
+	 * @param idx
+	 *            the index of a die
+	 * @return the face string showing on the die
+	 */
+	public String face(int idx) {
+		return FACES[this.codes[idx]];
+	}
+
+	/**
+	 * Returns the array of face codes of this board. The array must not be
+	 * modified.
+	 *
+	 * @return the face codes of this board
+	 */
+	byte[] codes() {
+		return this.codes;
+	}
+
+	/**
+	 * Returns a hash code for this board.
+	 *
+	 * @return an integer hash code
+	 *
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(this.codes);
+	}
+
+	/**
+	 * Compares this board to the specified object. The result is
+	 * <code>true</code> if and only if the argument is a <code>Board</code>
+	 * showing the same faces in the same order as this board.
+	 *
+	 * @param obj
+	 *            the object to compare
+	 * @return <code>true</code> if the two boards are equal, and
+	 *         <code>false</code> otherwise
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj.getClass() != this.getClass()) {
+			return false;
+		}
+		return Arrays.equals(this.codes, ((Board) obj).codes);
+	}
+
+	/**
+	 * Returns a string representation of this board. The string is the face
+	 * strings in row-major order separated by a comma and space, for example
+	 * <code>"A, QU, T, E, ..."</code>.
+	 *
+	 * @return a string representation of this board
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < this.codes.length; i++) {
+			if (i > 0) {
+				s.append(", ");
+			}
+			s.append(this.face(i));
+		}
+		return s.toString();
+	}
+}
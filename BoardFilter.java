@@ -0,0 +1,367 @@
+package eecs2030.lab4;
+
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A generator of random boards that only accepts boards whose number of words
+ * and total score fall within configurable ranges, for example to avoid
+ * "dead" boards in competitive play.
+ *
+ * <p>
+ * Candidate boards are rolled exactly as <code>Boggle.shuffleAndRoll</code>
+ * would roll them and solved until one of them meets the thresholds or a time
+ * budget runs out, so the accepted boards are distributed as the boards of an
+ * ordinary game would be if the rejected boards were never dealt. A board is
+ * not tied to the dice of any game; words are checked against it with
+ * <code>Boggle.isABoggleWord(String, Board)</code>.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java eecs2030.lab4.BoardFilter [minimumWords [minimumScore [rows [millis [dictionary]]]]]
+ * </pre>
+ *
+ * <p>
+ * The driver finds ten boards of the specified size (4 rows by default) with
+ * at least the specified number of words (100 by default) and points (150 by
+ * default), spending at most the specified number of milliseconds (1000 by
+ * default) on each, and prints the number of candidate boards solved per
+ * second.
+ *
+ * <p>
+ * Implementation Details: One task per thread of a fork-join pool rolls and
+ * counts candidates in a tight loop, each with its own
+ * <code>SplittableRandom</code>, its own array of face codes and a
+ * <code>BoggleSolver</code> borrowed from the idle solvers of the filter, so
+ * testing a candidate allocates nothing and the tasks only share the
+ * reference through which the first accepted board is published. Every task
+ * stops as soon as a board has been accepted or the budget has run out. Only
+ * the accepted board is fully solved. The solvers belong to the filter, not
+ * to the threads of the pool, so they, and the dictionary they refer to, can
+ * be collected as soon as the filter is.
+ */
+public class BoardFilter {
+
+	/**
+	 * The outcome of a search for a board.
+	 */
+	public static final class Result {
+
+		private final Solution solution;
+		private final long candidates;
+		private final long nanos;
+
+		private Result(Solution solution, long candidates, long nanos) {
+			this.solution = solution;
+			this.candidates = candidates;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Returns the accepted board, or null if no board was accepted within
+		 * the time budget.
+		 *
+		 * @return the accepted board, or null
+		 */
+		public Board getBoard() {
+			return this.solution == null ? null : this.solution.getBoard();
+		}
+
+		/**
+		 * Returns the solution of the accepted board, or null if no board was
+		 * accepted within the time budget.
+		 *
+		 * @return the solution of the accepted board, or null
+		 */
+		public Solution getSolution() {
+			return this.solution;
+		}
+
+		/**
+		 * Returns the number of candidate boards that were solved.
+		 *
+		 * @return the number of candidate boards
+		 */
+		public long getCandidates() {
+			return this.candidates;
+		}
+
+		/**
+		 * Returns the number of milliseconds the search took.
+		 *
+		 * @return the length of the search in milliseconds
+		 */
+		public long getMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(this.nanos);
+		}
+
+		/**
+		 * Returns the number of candidate boards solved per second.
+		 *
+		 * @return the number of candidate boards solved per second
+		 */
+		public double getBoardsPerSecond() {
+			return this.nanos == 0 ? 0 : this.candidates * 1e9 / this.nanos;
+		}
+	}
+
+	/**
+	 * A builder of board filters. Every range is inclusive, and a filter that
+	 * is not given a range accepts any value.
+	 */
+	public static final class Builder {
+
+		private final Dictionary dictionary;
+		private BoardSize size = BoardSize.CLASSIC;
+		private int minimumWords = 0;
+		private int maximumWords = Integer.MAX_VALUE;
+		private int minimumScore = 0;
+		private int maximumScore = Integer.MAX_VALUE;
+		private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+		/**
+		 * Initializes a builder of filters that solve boards using the
+		 * specified dictionary.
+		 *
+		 * @param dictionary
+		 *            the dictionary of legal words
+		 */
+		public Builder(Dictionary dictionary) {
+			this.dictionary = dictionary;
+		}
+
+		/**
+		 * Sets the size of the boards, which is <code>CLASSIC</code> by
+		 * default.
+		 *
+		 * @param size
+		 *            the size of the boards
+		 * @return this builder
+		 */
+		public Builder size(BoardSize size) {
+			this.size = size;
+			return this;
+		}
+
+		/**
+		 * Sets the range of the number of words on an accepted board.
+		 *
+		 * @param minimum
+		 *            the smallest number of words
+		 * @param maximum
+		 *            the largest number of words
+		 * @return this builder
+		 */
+		public Builder words(int minimum, int maximum) {
+			this.minimumWords = minimum;
+			this.maximumWords = maximum;
+			return this;
+		}
+
+		/**
+		 * Sets the range of the total score of an accepted board.
+		 *
+		 * @param minimum
+		 *            the smallest total score
+		 * @param maximum
+		 *            the largest total score
+		 * @return this builder
+		 */
+		public Builder score(int minimum, int maximum) {
+			this.minimumScore = minimum;
+			this.maximumScore = maximum;
+			return this;
+		}
+
+		/**
+		 * Sets the pool whose threads solve the candidates, which is the
+		 * common fork-join pool by default.
+		 *
+		 * @param pool
+		 *            the pool whose threads solve the candidates
+		 * @return this builder
+		 */
+		public Builder pool(ForkJoinPool pool) {
+			this.pool = pool;
+			return this;
+		}
+
+		/**
+		 * Returns a new filter with the settings of this builder.
+		 *
+		 * @return a new board filter
+		 * @throws IllegalArgumentException
+		 *             if a range is empty
+		 */
+		public BoardFilter build() {
+			if (this.minimumWords > this.maximumWords || this.minimumScore > this.maximumScore) {
+				throw new IllegalArgumentException("empty range");
+			}
+			return new BoardFilter(this);
+		}
+	}
+
+	private final BoardGenerator generator;
+	private final int minimumWords;
+	private final int maximumWords;
+	private final int minimumScore;
+	private final int maximumScore;
+	private final ForkJoinPool pool;
+	private final Dictionary dictionary;
+
+	/**
+	 * The solvers that no task is using.
+	 */
+	private final ConcurrentLinkedQueue<BoggleSolver> idle = new ConcurrentLinkedQueue<BoggleSolver>();
+
+	private BoardFilter(Builder builder) {
+		this.generator = new BoardGenerator(builder.size);
+		this.minimumWords = builder.minimumWords;
+		this.maximumWords = builder.maximumWords;
+		this.minimumScore = builder.minimumScore;
+		this.maximumScore = builder.maximumScore;
+		this.pool = builder.pool;
+		this.dictionary = builder.dictionary;
+	}
+
+	/**
+	 * Returns an idle solver, or a new solver if every solver is in use.
+	 *
+	 * @return a solver that no other task is using
+	 */
+	private BoggleSolver borrow() {
+		BoggleSolver solver = this.idle.poll();
+		return solver != null ? solver : new BoggleSolver(this.dictionary);
+	}
+
+	/**
+	 * Returns true if a board with the specified number of words and total
+	 * score is accepted by this filter.
+	 *
+	 * @param words
+	 *            the number of words on a board
+	 * @param score
+	 *            the total score of the board
+	 * @return true if the board is accepted, and false otherwise
+	 */
+	public boolean accepts(int words, int score) {
+		return words >= this.minimumWords && words <= this.maximumWords && score >= this.minimumScore
+				&& score <= this.maximumScore;
+	}
+
+	/**
+	 * Rolls and solves random boards in parallel until one of them is accepted
+	 * by this filter or the specified number of milliseconds has passed.
+	 *
+	 * @param budgetMillis
+	 *            the largest number of milliseconds to search for
+	 * @return the accepted board, if any, and the number of boards solved
+	 */
+	public Result find(long budgetMillis) {
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+		AtomicReference<Board> found = new AtomicReference<Board>();
+		LongAdder candidates = new LongAdder();
+		this.pool.invoke(new SearchTask(this.pool.getParallelism(), new SplittableRandom(), deadline, found,
+				candidates));
+		Board board = found.get();
+		Solution solution = null;
+		if (board != null) {
+			BoggleSolver solver = this.borrow();
+			try {
+				solution = solver.solution(board);
+			} finally {
+				this.idle.offer(solver);
+			}
+		}
+		return new Result(solution, candidates.sum(), System.nanoTime() - start);
+	}
+
+	/**
+	 * A task that splits itself into the specified number of workers, each of
+	 * which rolls and counts candidates until a board is accepted or the
+	 * deadline passes.
+	 */
+	private final class SearchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int workers;
+		private final SplittableRandom rng;
+		private final long deadline;
+		private final AtomicReference<Board> found;
+		private final LongAdder candidates;
+
+		SearchTask(int workers, SplittableRandom rng, long deadline, AtomicReference<Board> found,
+				LongAdder candidates) {
+			this.workers = workers;
+			this.rng = rng;
+			this.deadline = deadline;
+			this.found = found;
+			this.candidates = candidates;
+		}
+
+		@Override
+		protected void compute() {
+			if (this.workers > 1) {
+				int half = this.workers / 2;
+				invokeAll(new SearchTask(half, this.rng.split(), this.deadline, this.found, this.candidates),
+						new SearchTask(this.workers - half, this.rng, this.deadline, this.found, this.candidates));
+				return;
+			}
+			BoggleSolver solver = BoardFilter.this.borrow();
+			byte[] codes = new byte[BoardFilter.this.generator.size()];
+			long tried = 0;
+			try {
+				while (this.found.get() == null && System.nanoTime() - this.deadline < 0) {
+					BoardFilter.this.generator.roll(this.rng, codes);
+					int words = solver.count(codes);
+					tried++;
+					if (BoardFilter.this.accepts(words, solver.getScore())) {
+						this.found.compareAndSet(null, new Board(codes));
+						break;
+					}
+				}
+			} finally {
+				BoardFilter.this.idle.offer(solver);
+			}
+			this.candidates.add(tried);
+		}
+	}
+
+	public static void main(String[] args) {
+		int minimumWords = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int minimumScore = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+		BoardSize size = args.length > 2 ? BoardSize.forRows(Integer.parseInt(args[2])) : BoardSize.CLASSIC;
+		long millis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+		Dictionary dictionary = args.length > 4 ? DictionaryRegistry.get(Paths.get(args[4]), size)
+				: DictionaryRegistry.getDefault(size);
+		BoardFilter filter = new Builder(dictionary).size(size).words(minimumWords, Integer.MAX_VALUE)
+				.score(minimumScore, Integer.MAX_VALUE).build();
+
+		long candidates = 0;
+		long nanos = 0;
+		for (int i = 0; i < 10; i++) {
+			Result r = filter.find(millis);
+			candidates += r.getCandidates();
+			nanos += r.nanos;
+			if (r.getSolution() == null) {
+				System.out.printf("no board in %d ms (%d candidates)%n", r.getMillis(), r.getCandidates());
+			} else {
+				Solution s = r.getSolution();
+				System.out.printf("%d words, %d points after %d candidates in %d ms: %s%n", s.getWordCount(),
+						s.getScore(), r.getCandidates(), r.getMillis(), s.getBoard());
+			}
+		}
+		System.out.printf("throughput: %.0f boards/s on %d threads%n", nanos == 0 ? 0 : candidates * 1e9 / nanos,
+				ForkJoinPool.commonPool().getParallelism());
+	}
+}
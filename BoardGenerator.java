@@ -0,0 +1,264 @@
+package eecs2030.lab4;
+
+import java.util.Spliterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A generator of random Boggle boards for simulations.
+ *
+ * <p>
+ * A board is generated exactly as <code>Boggle.shuffleAndRoll</code> would
+ * generate it: the dice are placed on the board in a random order and each die
+ * is rolled. Unlike <code>Boggle</code>, the generator writes the face codes of
+ * each board (encoded as by <code>Board</code>) straight into a reusable array,
+ * so generating a board allocates nothing.
+ *
+ * <p>
+ * Large numbers of boards are generated in parallel in the common fork-join
+ * pool. Every task has its own <code>SplittableRandom</code>, split from the
+ * generator of its parent task, so the tasks never contend on a generator, and
+ * the boards collected from a given seed are the same no matter how many
+ * threads take part.
+ */
+public class BoardGenerator {
+
+	/**
+	 * The largest number of boards generated by a single task. The batch size
+	 * does not depend on the number of processors, so the way the boards are
+	 * split between tasks (and so the boards themselves) depends only on the
+	 * seed and the number of boards.
+	 */
+	private static final long BATCH = 4096;
+
+	/**
+	 * The face codes of each die, one row per die.
+	 */
+	private final byte[][] dice;
+
+	/**
+	 * Initializes a generator that uses the 16 standard Boggle dice.
+	 */
+	public BoardGenerator() {
+		this(BoardSize.CLASSIC);
+	}
+
+	/**
+	 * Initializes a generator that uses the standard dice for boards of the
+	 * specified size.
+	 *
+	 * @param size
+	 *            the size of the boards
+	 */
+	public BoardGenerator(BoardSize size) {
+		this(size.letters());
+	}
+
+	/**
+	 * Initializes a generator that uses the specified dice.
+	 *
+	 * @param letters
+	 *            the face strings of the dice, one row per die
+	 * @throws IllegalArgumentException
+	 *             if the dice do not fill a square board, a die has no faces,
+	 *             or a face is not a single letter or <code>"QU"</code>
+	 */
+	public BoardGenerator(String[][] letters) {
+		Grid.forCells(letters.length);
+		this.dice = new byte[letters.length][];
+		for (int i = 0; i < letters.length; i++) {
+			if (letters[i].length == 0) {
+				throw new IllegalArgumentException("Must have at least 1 face");
+			}
+			this.dice[i] = new byte[letters[i].length];
+			for (int j = 0; j < letters[i].length; j++) {
+				this.dice[i][j] = Board.encode(letters[i][j]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of dice on the boards made by this generator.
+	 *
+	 * @return the number of dice on each board
+	 */
+	public int size() {
+		return this.dice.length;
+	}
+
+	/**
+	 * Shuffles and rolls the dice and stores the face codes of the resulting
+	 * board in the specified array.
+	 *
+	 * @pre. <code>codes.length == size()</code>
+	 *
+	 * @param rng
+	 *            the random number generator used to shuffle and roll the dice
+	 * @param codes
+	 *            the array to store the face codes in
+	 */
+	public void roll(SplittableRandom rng, byte[] codes) {
+		// an "inside-out" Fisher-Yates shuffle places each die as it is rolled
+		for (int i = 0; i < this.dice.length; i++) {
+			byte[] faces = this.dice[i];
+			int j = rng.nextInt(i + 1);
+			codes[i] = codes[j];
+			codes[j] = faces[rng.nextInt(faces.length)];
+		}
+	}
+
+	/**
+	 * Returns a new board made by shuffling and rolling the dice.
+	 *
+	 * @param rng
+	 *            the random number generator used to shuffle and roll the dice
+	 * @return a new board
+	 */
+	public Board roll(SplittableRandom rng) {
+		byte[] codes = new byte[this.dice.length];
+		this.roll(rng, codes);
+		return new Board(codes);
+	}
+
+	/**
+	 * Returns a sequential stream of the specified number of random boards.
+	 * Call <code>parallel()</code> on the stream to generate the boards in
+	 * parallel. Unlike <code>collect</code>, the stream creates a new
+	 * <code>Board</code> for every board it generates.
+	 *
+	 * @param count
+	 *            the number of boards
+	 * @param seed
+	 *            the seed of the random number generator
+	 * @return a stream of random boards
+	 */
+	public Stream<Board> boards(long count, long seed) {
+		return StreamSupport.stream(new BoardSpliterator(0, count, new SplittableRandom(seed)), false);
+	}
+
+	/**
+	 * Generates the specified number of random boards in parallel and reduces
+	 * them to a single result, in the manner of
+	 * <code>Stream.collect</code>. Each task creates one result container
+	 * using <code>supplier</code> and one array of face codes, and passes the
+	 * array to <code>accumulator</code> once per board; the contents of the
+	 * array are only valid during the call. The containers of the tasks are
+	 * then merged using <code>combiner</code>.
+	 *
+	 * @param <A>
+	 *            the type of the result container
+	 * @param count
+	 *            the number of boards
+	 * @param seed
+	 *            the seed of the random number generator
+	 * @param supplier
+	 *            creates a new, empty result container
+	 * @param accumulator
+	 *            adds a board to a result container
+	 * @param combiner
+	 *            merges two result containers
+	 * @return the result container holding all of the boards
+	 */
+	public <A> A collect(long count, long seed, Supplier<A> supplier, BiConsumer<A, byte[]> accumulator,
+			BinaryOperator<A> combiner) {
+		return new CollectTask<A>(count, new SplittableRandom(seed), supplier, accumulator, combiner).invoke();
+	}
+
+	/**
+	 * A task that generates a range of boards, splitting itself in two while
+	 * the range is larger than the batch size.
+	 */
+	private final class CollectTask<A> extends RecursiveTask<A> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long count;
+		private final SplittableRandom rng;
+		private final Supplier<A> supplier;
+		private final BiConsumer<A, byte[]> accumulator;
+		private final BinaryOperator<A> combiner;
+
+		CollectTask(long count, SplittableRandom rng, Supplier<A> supplier,
+				BiConsumer<A, byte[]> accumulator, BinaryOperator<A> combiner) {
+			this.count = count;
+			this.rng = rng;
+			this.supplier = supplier;
+			this.accumulator = accumulator;
+			this.combiner = combiner;
+		}
+
+		@Override
+		protected A compute() {
+			if (this.count <= BATCH) {
+				A result = this.supplier.get();
+				byte[] codes = new byte[BoardGenerator.this.dice.length];
+				for (long i = 0; i < this.count; i++) {
+					BoardGenerator.this.roll(this.rng, codes);
+					this.accumulator.accept(result, codes);
+				}
+				return result;
+			}
+			long half = this.count / 2;
+			CollectTask<A> left = new CollectTask<A>(half, this.rng.split(), this.supplier,
+					this.accumulator, this.combiner);
+			CollectTask<A> right = new CollectTask<A>(this.count - half, this.rng, this.supplier,
+					this.accumulator, this.combiner);
+			left.fork();
+			A r = right.compute();
+			return this.combiner.apply(left.join(), r);
+		}
+	}
+
+	/**
+	 * A spliterator over a range of random boards.
+	 */
+	private final class BoardSpliterator implements Spliterator<Board> {
+
+		private long index;
+		private final long end;
+		private final SplittableRandom rng;
+
+		BoardSpliterator(long index, long end, SplittableRandom rng) {
+			this.index = index;
+			this.end = end;
+			this.rng = rng;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Board> action) {
+			if (this.index >= this.end) {
+				return false;
+			}
+			this.index++;
+			action.accept(BoardGenerator.this.roll(this.rng));
+			return true;
+		}
+
+		@Override
+		public Spliterator<Board> trySplit() {
+			long mid = (this.index + this.end) >>> 1;
+			if (mid - this.index < BATCH) {
+				return null;
+			}
+			BoardSpliterator prefix = new BoardSpliterator(this.index, mid, this.rng.split());
+			this.index = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.end - this.index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package eecs2030.lab4;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of boards that have already been rolled and solved, so that
+ * a game can start without waiting for a board to be generated, filtered and
+ * solved.
+ *
+ * <p>
+ * Every board in the pool is a <code>Solution</code>: the faces of the dice,
+ * in the same row-major layout as <code>Boggle.getDice</code>, and every word
+ * that can be traced on them. The boards are found by a
+ * <code>BoardFilter</code>, so a pool can be limited to boards with enough
+ * words or points. The filter can be replaced, for example when the
+ * dictionary is reloaded; the boards found by the old filter are then
+ * dropped, and the old filter and its dictionary can be collected.
+ *
+ * <p>
+ * Implementation Details: The boards are held in an
+ * <code>ArrayBlockingQueue</code>. A single background thread owned by the
+ * pool finds boards and puts them in the queue, waiting whenever the queue is
+ * full, so the pool is topped up as soon as a board is taken. Taking a board
+ * never waits: <code>poll</code> removes the head of the queue in constant time
+ * or reports a miss if the pool is empty. The pool counts hits and misses and
+ * the time taken to find every board with <code>LongAdder</code> and
+ * <code>LongAccumulator</code> objects, so recording the metrics never makes
+ * the producer and the consumers wait for each other.
+ */
+public class BoardPool {
+
+	/**
+	 * The largest number of milliseconds spent on a single search for a board;
+	 * the producer starts a new search if no board is accepted in time.
+	 */
+	private static final long SEARCH_MILLIS = 1000;
+
+	/**
+	 * A board in the pool and the filter that found it.
+	 */
+	private static final class Pooled {
+
+		private final Solution solution;
+		private final BoardFilter filter;
+
+		private Pooled(Solution solution, BoardFilter filter) {
+			this.solution = solution;
+			this.filter = filter;
+		}
+	}
+
+	/**
+	 * The filter that finds new boards.
+	 */
+	private volatile BoardFilter filter;
+
+	private final BlockingQueue<Pooled> boards;
+
+	/**
+	 * The thread that refills the pool.
+	 */
+	private final ExecutorService producer;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder refills = new LongAdder();
+	private final LongAdder refillNanos = new LongAdder();
+	private final LongAccumulator maximumRefillNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Initializes a pool that holds up to <code>capacity</code> boards found by
+	 * the specified filter, and starts filling it in the background.
+	 *
+	 * @param filter
+	 *            finds the boards of the pool
+	 * @param capacity
+	 *            the largest number of boards in the pool
+	 * @throws IllegalArgumentException
+	 *             if <code>capacity</code> is less than 1
+	 */
+	public BoardPool(BoardFilter filter, int capacity) {
+		this.filter = filter;
+		this.boards = new ArrayBlockingQueue<Pooled>(capacity);
+		this.producer = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "board-pool");
+			t.setDaemon(true);
+			return t;
+		});
+		this.producer.execute(this::refill);
+	}
+
+	/**
+	 * Finds boards and adds them to the pool until the pool is closed.
+	 */
+	private void refill() {
+		try {
+			while (true) {
+				long start = System.nanoTime();
+				BoardFilter f;
+				Solution solution;
+				do {
+					if (Thread.interrupted()) {
+						return;
+					}
+					f = this.filter;
+					solution = f.find(SEARCH_MILLIS).getSolution();
+				} while (solution == null);
+				long elapsed = System.nanoTime() - start;
+				this.refills.increment();
+				this.refillNanos.add(elapsed);
+				this.maximumRefillNanos.accumulate(elapsed);
+				this.boards.put(new Pooled(solution, f));
+			}
+		} catch (InterruptedException e) {
+			// the pool has been closed
+		}
+	}
+
+	/**
+	 * Removes a solved board from the pool and returns it, or returns null if
+	 * the pool is empty. This method never waits for a board to be found.
+	 *
+	 * @return a solved board, or null if the pool is empty
+	 */
+	public Solution poll() {
+		BoardFilter f = this.filter;
+		Pooled p = this.boards.poll();
+		// a board found by a filter that has since been replaced is dropped
+		while (p != null && p.filter != f) {
+			p = this.boards.poll();
+		}
+		if (p == null) {
+			this.misses.increment();
+			return null;
+		}
+		this.hits.increment();
+		return p.solution;
+	}
+
+	/**
+	 * Replaces the filter that finds the boards of the pool, and drops the
+	 * boards found by the old filter. A search already under way with the old
+	 * filter finishes first, but its board is never returned by
+	 * <code>poll</code>.
+	 *
+	 * @param filter
+	 *            finds the boards of the pool from now on
+	 */
+	public void setFilter(BoardFilter filter) {
+		this.filter = filter;
+		this.boards.clear();
+	}
+
+	/**
+	 * Returns the number of boards in the pool.
+	 *
+	 * @return the number of boards in the pool
+	 */
+	public int getDepth() {
+		return this.boards.size();
+	}
+
+	/**
+	 * Returns the largest number of boards the pool can hold.
+	 *
+	 * @return the capacity of the pool
+	 */
+	public int getCapacity() {
+		return this.boards.size() + this.boards.remainingCapacity();
+	}
+
+	/**
+	 * Returns the number of calls to <code>poll</code> that returned a board.
+	 *
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Returns the number of calls to <code>poll</code> that found the pool
+	 * empty.
+	 *
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Returns the fraction of calls to <code>poll</code> that returned a
+	 * board, or 1 if <code>poll</code> has not been called.
+	 *
+	 * @return the hit rate of the pool
+	 */
+	public double getHitRate() {
+		long h = this.hits.sum();
+		long total = h + this.misses.sum();
+		return total == 0 ? 1 : (double) h / total;
+	}
+
+	/**
+	 * Returns the number of boards that have been found and added to the
+	 * pool.
+	 *
+	 * @return the number of refills
+	 */
+	public long getRefills() {
+		return this.refills.sum();
+	}
+
+	/**
+	 * Returns the mean number of microseconds taken to find a board, or 0 if
+	 * no board has been found yet. The time does not include waiting for room
+	 * in a full pool.
+	 *
+	 * @return the mean refill latency in microseconds
+	 */
+	public long getMeanRefillMicros() {
+		long n = this.refills.sum();
+		return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.refillNanos.sum() / n);
+	}
+
+	/**
+	 * Returns the largest number of microseconds taken to find a board.
+	 *
+	 * @return the largest refill latency in microseconds
+	 */
+	public long getMaximumRefillMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(this.maximumRefillNanos.get());
+	}
+
+	/**
+	 * Stops refilling the pool. Boards already in the pool can still be
+	 * taken.
+	 */
+	public void close() {
+		this.producer.shutdownNow();
+	}
+
+	/**
+	 * Returns a string describing the metrics of this pool, for example
+	 * <code>"depth 31/32, hit rate 0.998, refill mean 412 us, max 2210 us"</code>.
+	 *
+	 * @return a string describing the metrics of this pool
+	 */
+	@Override
+	public String toString() {
+		return String.format("depth %d/%d, hit rate %.3f, refill mean %d us, max %d us", this.getDepth(),
+				this.getCapacity(), this.getHitRate(), this.getMeanRefillMicros(), this.getMaximumRefillMicros());
+	}
+}
@@ -0,0 +1,88 @@
+package eecs2030.lab4;
+
+/**
+ * The sizes of Boggle board, each with its own standard set of dice.
+ */
+public enum BoardSize {
+
+	/**
+	 * The classic board of 16 dice in 4 rows of 4.
+	 */
+	CLASSIC(4, Boggle.LETTERS),
+
+	/**
+	 * The Big Boggle board of 25 dice in 5 rows of 5.
+	 */
+	BIG(5, Boggle.BIG_LETTERS),
+
+	/**
+	 * The Super Big Boggle board of 36 dice in 6 rows of 6.
+	 */
+	SUPER_BIG(6, Boggle.SUPER_BIG_LETTERS);
+
+	private final Grid grid;
+
+	private final String[][] letters;
+
+	private BoardSize(int rows, String[][] letters) {
+		this.grid = Grid.of(rows);
+		this.letters = letters;
+	}
+
+	/**
+	 * Returns the board size with the specified number of rows.
+	 *
+	 * @param rows
+	 *            the number of rows (and columns) of dice
+	 * @return the board size with the specified number of rows
+	 * @throws IllegalArgumentException
+	 *             if there is no standard board with the specified number of
+	 *             rows
+	 */
+	public static BoardSize forRows(int rows) {
+		for (BoardSize size : values()) {
+			if (size.getRows() == rows) {
+				return size;
+			}
+		}
+		throw new IllegalArgumentException("no standard board has " + rows + " rows");
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of dice on a board of this
+	 * size.
+	 *
+	 * @return the number of rows of dice
+	 */
+	public int getRows() {
+		return this.grid.size();
+	}
+
+	/**
+	 * Returns the number of dice on a board of this size.
+	 *
+	 * @return the number of dice
+	 */
+	public int getNumberOfDice() {
+		return this.grid.cells();
+	}
+
+	/**
+	 * Returns the geometry of a board of this size.
+	 *
+	 * @return the geometry of a board of this size
+	 */
+	Grid grid() {
+		return this.grid;
+	}
+
+	/**
+	 * Returns the letters on the standard dice of this size, one row per die.
+	 * The array must not be modified.
+	 *
+	 * @return the letters on the standard dice
+	 */
+	String[][] letters() {
+		return this.letters;
+	}
+}
@@ -0,0 +1,165 @@
+package eecs2030.lab4;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A command-line driver that rolls a large number of random boards of the
+ * standard dice, solves each one, and prints aggregate statistics about the
+ * number of words, the total score and the letters on the boards.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java eecs2030.lab4.BoardStatistics [boards [seed [dictionary]]]
+ * </pre>
+ *
+ * <p>
+ * The number of boards defaults to 1000000 and the seed to 2030. The
+ * dictionary may be a word list or a compiled dictionary; the default
+ * dictionary is used if none is given.
+ */
+public class BoardStatistics {
+
+	/**
+	 * The largest total score that is counted separately in the score
+	 * histogram; higher scores are counted in the last bucket.
+	 */
+	private static final int MAXIMUM_SCORE = 1000;
+
+	private final Dictionary dictionary;
+
+	/**
+	 * The solvers that no task of the run is using, shared by every
+	 * statistics of a run.
+	 */
+	private final ConcurrentLinkedQueue<BoggleSolver> idle;
+
+	private long boards;
+	private long words;
+	private long score;
+	private int minimumScore = Integer.MAX_VALUE;
+	private int maximumScore;
+	private int minimumWords = Integer.MAX_VALUE;
+	private int maximumWords;
+	private final long[] scores = new long[MAXIMUM_SCORE + 1];
+	private final long[] faces = new long[Board.QU + 1];
+
+	/**
+	 * Initializes empty statistics whose boards are solved with the specified
+	 * dictionary by the solvers of a run.
+	 *
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @param idle
+	 *            the solvers of the run that no task is using
+	 */
+	private BoardStatistics(Dictionary dictionary, ConcurrentLinkedQueue<BoggleSolver> idle) {
+		this.dictionary = dictionary;
+		this.idle = idle;
+	}
+
+	/**
+	 * Adds a board to these statistics.
+	 *
+	 * @param codes
+	 *            the face codes of the board
+	 */
+	private void add(byte[] codes) {
+		BoggleSolver solver = this.idle.poll();
+		if (solver == null) {
+			solver = new BoggleSolver(this.dictionary);
+		}
+		int w;
+		int s;
+		try {
+			w = solver.count(codes);
+			s = solver.getScore();
+		} finally {
+			this.idle.offer(solver);
+		}
+		this.boards++;
+		this.words += w;
+		this.score += s;
+		this.minimumScore = Math.min(this.minimumScore, s);
+		this.maximumScore = Math.max(this.maximumScore, s);
+		this.minimumWords = Math.min(this.minimumWords, w);
+		this.maximumWords = Math.max(this.maximumWords, w);
+		this.scores[Math.min(s, MAXIMUM_SCORE)]++;
+		for (byte c : codes) {
+			this.faces[c]++;
+		}
+	}
+
+	/**
+	 * Adds the boards of other statistics to these statistics.
+	 *
+	 * @param other
+	 *            the statistics to add
+	 * @return these statistics
+	 */
+	private BoardStatistics merge(BoardStatistics other) {
+		this.boards += other.boards;
+		this.words += other.words;
+		this.score += other.score;
+		this.minimumScore = Math.min(this.minimumScore, other.minimumScore);
+		this.maximumScore = Math.max(this.maximumScore, other.maximumScore);
+		this.minimumWords = Math.min(this.minimumWords, other.minimumWords);
+		this.maximumWords = Math.max(this.maximumWords, other.maximumWords);
+		for (int i = 0; i < this.scores.length; i++) {
+			this.scores[i] += other.scores[i];
+		}
+		for (int i = 0; i < this.faces.length; i++) {
+			this.faces[i] += other.faces[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the smallest total score such that at least the specified
+	 * fraction of the boards score no more than it.
+	 *
+	 * @param fraction
+	 *            a fraction between 0 and 1
+	 * @return the score at the specified percentile
+	 */
+	private int percentile(double fraction) {
+		long target = (long) Math.ceil(fraction * this.boards);
+		long seen = 0;
+		for (int i = 0; i < this.scores.length; i++) {
+			seen += this.scores[i];
+			if (seen >= target) {
+				return i;
+			}
+		}
+		return MAXIMUM_SCORE;
+	}
+
+	public static void main(String[] args) {
+		long count = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 2030;
+		Dictionary dictionary = args.length > 2 ? DictionaryRegistry.get(Paths.get(args[2]), BoardSize.CLASSIC)
+				: DictionaryRegistry.getDefault(BoardSize.CLASSIC);
+		ConcurrentLinkedQueue<BoggleSolver> idle = new ConcurrentLinkedQueue<BoggleSolver>();
+
+		long start = System.nanoTime();
+		BoardGenerator generator = new BoardGenerator();
+		BoardStatistics stats = generator.collect(count, seed, () -> new BoardStatistics(dictionary, idle),
+				BoardStatistics::add, BoardStatistics::merge);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("boards:          %d (%.0f boards/s)%n", stats.boards, stats.boards / seconds);
+		System.out.printf("words per board: mean %.2f, min %d, max %d%n", (double) stats.words / stats.boards,
+				stats.minimumWords, stats.maximumWords);
+		System.out.printf("score per board: mean %.2f, min %d, max %d%n", (double) stats.score / stats.boards,
+				stats.minimumScore, stats.maximumScore);
+		System.out.printf("score quantiles: p10 %d, p50 %d, p90 %d, p99 %d%n", stats.percentile(0.10),
+				stats.percentile(0.50), stats.percentile(0.90), stats.percentile(0.99));
+		System.out.println("face frequencies:");
+		long total = stats.boards * generator.size();
+		for (int i = 0; i < stats.faces.length; i++) {
+			System.out.printf("  %-2s %6.3f%%%n", Board.decode(i), 100.0 * stats.faces[i] / total);
+		}
+	}
+}
@@ -3,10 +3,16 @@ package eecs2030.lab4;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 /**
  * A class that models how the game of Boggle is played. A Boggle object is a
- * composition of a Dictionary and a composition of a List of 16 Die objects.
+ * composition of a Dictionary and a composition of a List of 16 Die objects,
+ * or of 25 or 36 Die objects for the larger boards described by
+ * <code>BoardSize</code>.
  *
  */
 public class Boggle {
@@ -14,40 +20,221 @@ public class Boggle {
 	/**
 	 * The letters on the 16 boggle dice (strings for one die on each line).
 	 */
-	private static final String[][] LETTERS = { { "A", "A", "E", "E", "G", "N" }, { "E", "L", "R", "T", "T", "Y" },
+	static final String[][] LETTERS = { { "A", "A", "E", "E", "G", "N" }, { "E", "L", "R", "T", "T", "Y" },
 			{ "W", "A", "O", "O", "T", "T" }, { "A", "B", "B", "J", "O", "O" }, { "E", "H", "R", "T", "V", "W" },
 			{ "C", "I", "M", "O", "T", "U" }, { "D", "I", "S", "T", "T", "Y" }, { "E", "I", "O", "S", "S", "T" },
 			{ "Y", "D", "E", "L", "R", "V" }, { "A", "C", "H", "O", "P", "S" }, { "U", "H", "I", "M", "N", "QU" },
 			{ "E", "E", "I", "N", "S", "U" }, { "E", "E", "G", "H", "N", "W" }, { "A", "F", "F", "K", "P", "S" },
 			{ "H", "L", "N", "N", "R", "Z" }, { "X", "D", "E", "I", "L", "R" } };
+
+	/**
+	 * The letters on the 25 Big Boggle dice.
+	 */
+	static final String[][] BIG_LETTERS = { { "A", "A", "A", "F", "R", "S" }, { "A", "A", "E", "E", "E", "E" },
+			{ "A", "A", "F", "I", "R", "S" }, { "A", "D", "E", "N", "N", "N" }, { "A", "E", "E", "E", "E", "M" },
+			{ "A", "E", "E", "G", "M", "U" }, { "A", "E", "G", "M", "N", "N" }, { "A", "F", "I", "R", "S", "Y" },
+			{ "B", "J", "K", "QU", "X", "Z" }, { "C", "C", "E", "N", "S", "T" }, { "C", "E", "I", "I", "L", "T" },
+			{ "C", "E", "I", "L", "P", "T" }, { "C", "E", "I", "P", "S", "T" }, { "D", "D", "H", "N", "O", "T" },
+			{ "D", "H", "H", "L", "O", "R" }, { "D", "H", "L", "N", "O", "R" }, { "D", "H", "L", "N", "O", "R" },
+			{ "E", "I", "I", "I", "T", "T" }, { "E", "M", "O", "T", "T", "T" }, { "E", "N", "S", "S", "S", "U" },
+			{ "F", "I", "P", "R", "S", "Y" }, { "G", "O", "R", "R", "V", "W" }, { "I", "P", "R", "R", "R", "Y" },
+			{ "N", "O", "O", "T", "U", "W" }, { "O", "O", "O", "T", "T", "U" } };
+
+	/**
+	 * The letters on the 36 Super Big Boggle dice: the 25 Big Boggle dice and
+	 * 11 of the standard dice (every standard die except the one with the
+	 * <code>"QU"</code> face and the four with the rarest letters). The
+	 * commercial Super Big Boggle dice have blank faces and two-letter faces
+	 * other than <code>"QU"</code>, which a <code>Board</code> cannot show.
+	 */
+	static final String[][] SUPER_BIG_LETTERS = { { "A", "A", "A", "F", "R", "S" },
+			{ "A", "A", "E", "E", "E", "E" }, { "A", "A", "F", "I", "R", "S" }, { "A", "D", "E", "N", "N", "N" },
+			{ "A", "E", "E", "E", "E", "M" }, { "A", "E", "E", "G", "M", "U" }, { "A", "E", "G", "M", "N", "N" },
+			{ "A", "F", "I", "R", "S", "Y" }, { "B", "J", "K", "QU", "X", "Z" }, { "C", "C", "E", "N", "S", "T" },
+			{ "C", "E", "I", "I", "L", "T" }, { "C", "E", "I", "L", "P", "T" }, { "C", "E", "I", "P", "S", "T" },
+			{ "D", "D", "H", "N", "O", "T" }, { "D", "H", "H", "L", "O", "R" }, { "D", "H", "L", "N", "O", "R" },
+			{ "D", "H", "L", "N", "O", "R" }, { "E", "I", "I", "I", "T", "T" }, { "E", "M", "O", "T", "T", "T" },
+			{ "E", "N", "S", "S", "S", "U" }, { "F", "I", "P", "R", "S", "Y" }, { "G", "O", "R", "R", "V", "W" },
+			{ "I", "P", "R", "R", "R", "Y" }, { "N", "O", "O", "T", "U", "W" }, { "O", "O", "O", "T", "T", "U" },
+			{ "A", "A", "E", "E", "G", "N" }, { "E", "L", "R", "T", "T", "Y" }, { "W", "A", "O", "O", "T", "T" },
+			{ "E", "H", "R", "T", "V", "W" }, { "C", "I", "M", "O", "T", "U" }, { "D", "I", "S", "T", "T", "Y" },
+			{ "E", "I", "O", "S", "S", "T" }, { "Y", "D", "E", "L", "R", "V" }, { "A", "C", "H", "O", "P", "S" },
+			{ "E", "E", "I", "N", "S", "U" }, { "E", "E", "G", "H", "N", "W" } };
+
+	/**
+	 * The number of dice on the classic board.
+	 */
 	public static final int NUMBER_OF_DICE = 16;
 
 	/**
-	 * The 16 boggle dice.
+	 * The boggle dice.
 	 */
 	private List<Die> dice = new ArrayList<Die>();
 
 	/**
-	 * The dictionary.
+	 * The random number generator used to shuffle and roll the dice.
+	 */
+	private final RandomGenerator rng;
+
+	/**
+	 * The size of the board.
+	 */
+	private final BoardSize size;
+
+	/**
+	 * Supplies the current dictionary; read once for every word checked, so
+	 * the dictionary can be replaced while the game is being played.
+	 */
+	private final Supplier<Dictionary> dictionary;
+
+	/**
+	 * The solver used to find every word on the board; created when first
+	 * needed, and again whenever the dictionary is replaced.
+	 */
+	private BoggleSolver solver;
+
+	/**
+	 * The dictionary the solver was created for.
+	 */
+	private Dictionary solverDictionary;
+
+	/**
+	 * A snapshot of the current faces of the dice; replaced every time the
+	 * dice are rolled. The field is volatile so that threads validating words
+	 * always see a complete snapshot.
 	 */
-	private Dictionary dictionary;
+	private volatile Board board;
 
 	/**
-	 * Initializes a Boggle game by creating the 16 standard boggle dice and a
-	 * dictionary.
+	 * Initializes a Boggle game by creating the 16 standard boggle dice and
+	 * using the shared default dictionary for the classic board.
 	 * 
+	 * @see DictionaryRegistry#getDefault(BoardSize)
 	 */
 	public Boggle() {
-		for (int i = 0; i < Boggle.NUMBER_OF_DICE; i++) {
-			String[] faces = Boggle.LETTERS[i];
+		this(DictionaryRegistry.getDefault(BoardSize.CLASSIC));
+	}
+
+	/**
+	 * Initializes a Boggle game by creating the 16 standard boggle dice and
+	 * using the specified dictionary. Dictionaries are immutable, so many
+	 * games can share one dictionary.
+	 * 
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 */
+	public Boggle(Dictionary dictionary) {
+		this(dictionary, new SplittableRandom());
+	}
+
+	/**
+	 * Initializes a Boggle game that uses the specified dictionary and shuffles
+	 * and rolls its dice using a generator seeded with the specified seed. Two
+	 * games constructed with the same seed produce the same sequence of
+	 * boards.
+	 * 
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @param seed
+	 *            the seed of the random number generator
+	 */
+	public Boggle(Dictionary dictionary, long seed) {
+		this(dictionary, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Initializes a Boggle game that uses the specified dictionary and shuffles
+	 * and rolls its dice using the specified random number generator. A Boggle
+	 * game is not thread-safe, so the generator is only ever used by the thread
+	 * that calls <code>shuffleAndRoll</code>.
+	 * 
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @param rng
+	 *            the random number generator used to shuffle and roll the dice
+	 */
+	public Boggle(Dictionary dictionary, RandomGenerator rng) {
+		this(() -> dictionary, rng);
+	}
+
+	/**
+	 * Initializes a Boggle game by creating the 16 standard boggle dice and
+	 * using the dictionary returned by the specified supplier, for example a
+	 * <code>DictionaryLoader</code>. The supplier is asked for the dictionary
+	 * every time a word is checked, so a new dictionary takes effect
+	 * immediately.
+	 * 
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @see DictionaryLoader
+	 */
+	public Boggle(Supplier<Dictionary> dictionary) {
+		this(dictionary, new SplittableRandom());
+	}
+
+	/**
+	 * Initializes a Boggle game that uses the dictionary returned by the
+	 * specified supplier and shuffles and rolls its dice using the specified
+	 * random number generator.
+	 * 
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param rng
+	 *            the random number generator used to shuffle and roll the dice
+	 */
+	public Boggle(Supplier<Dictionary> dictionary, RandomGenerator rng) {
+		this(dictionary, BoardSize.CLASSIC, rng);
+	}
+
+	/**
+	 * Initializes a Boggle game played on a board of the specified size with
+	 * the standard dice for that size, using the specified dictionary.
+	 * 
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @param size
+	 *            the size of the board
+	 */
+	public Boggle(Dictionary dictionary, BoardSize size) {
+		this(() -> dictionary, size, new SplittableRandom());
+	}
+
+	/**
+	 * Initializes a Boggle game played on a board of the specified size with
+	 * the standard dice for that size, using the dictionary returned by the
+	 * specified supplier and shuffling and rolling its dice using the
+	 * specified random number generator.
+	 * 
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param size
+	 *            the size of the board
+	 * @param rng
+	 *            the random number generator used to shuffle and roll the dice
+	 */
+	public Boggle(Supplier<Dictionary> dictionary, BoardSize size, RandomGenerator rng) {
+		this.rng = rng;
+		this.size = size;
+		for (int i = 0; i < size.getNumberOfDice(); i++) {
+			String[] faces = size.letters()[i];
 			Die d = new Die(faces);
 			dice.add(d);
 		}
-		this.dictionary = new Dictionary();
+		this.dictionary = dictionary;
+		this.board = Board.of(this.dice);
 	}
 
 	/**
-	 * Returns a new list of the 16 dice in their current state. The order of
+	 * Returns the size of the board this game is played on.
+	 * 
+	 * @return the size of the board
+	 */
+	public BoardSize getBoardSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns a new list of the dice in their current state. The order of
 	 * dice is guaranteed to be stable between calls to
 	 * <code>shuffleAndRoll</code>; in other words, all lists returned by this
 	 * method are equal between calls to <code>shuffleAndRoll</code> (assuming
@@ -59,7 +246,7 @@ public class Boggle {
 	 * object, and modifying the dice in the returned list has no effect on the
 	 * dice held by the Boggle object.
 	 * 
-	 * @return a list of the 16 dice in their current state; modifying the list
+	 * @return a list of the dice in their current state; modifying the list
 	 *         or the dice in the list does not modify the state of the Boggle
 	 *         dice
 	 */
@@ -78,22 +265,74 @@ public class Boggle {
 	 * simulates the shaking of the dice in the physical version of the game.
 	 * 
 	 * <p>
-	 * Note to students: You can randomly shuffle the list of dice by using the
-	 * method <code>Collections.shuffle</code>. You should then roll each die in
-	 * the list.
+	 * The dice are shuffled with a Fisher-Yates shuffle and rolled using the
+	 * random number generator of this game.
 	 */
 	public void shuffleAndRoll() {
-		Collections.shuffle(dice);
+		this.shuffleAndRoll(this.dice);
+		this.board = Board.of(this.dice);
+		BoggleMetrics.get().rolls.increment();
+
+	}
+
+	/**
+	 * Shuffles and rolls copies of the dice, solves the board they show, and
+	 * only then makes them the dice of this game. If the board cannot be
+	 * solved, the dice and the board of this game are left as they were.
+	 * 
+	 * @return the solution of the new board
+	 */
+	Solution shuffleRollAndSolve() {
+		List<Die> rolled = this.getDice();
+		this.shuffleAndRoll(rolled);
+		Board b = Board.of(rolled);
+		Solution solution = this.solver().solution(b);
+		this.dice = rolled;
+		this.board = b;
+		BoggleMetrics.get().rolls.increment();
+		return solution;
+	}
+
+	/**
+	 * Shuffles the specified dice in place with a Fisher-Yates shuffle and
+	 * rolls each of them, using the random number generator of this game.
+	 * 
+	 * @param dice
+	 *            the dice to shuffle and roll
+	 */
+	private void shuffleAndRoll(List<Die> dice) {
+		for (int i = dice.size() - 1; i > 0; i--) {
+			Collections.swap(dice, i, this.rng.nextInt(i + 1));
+		}
 		for (Die d : dice) {
-			d.roll();
+			d.roll(this.rng);
 		}
+	}
 
+	/**
+	 * Returns an immutable snapshot of the current faces of the dice, in the
+	 * same order as the dice returned by <code>getDice</code>. The snapshot is
+	 * taken once per call to <code>shuffleAndRoll</code>, so this method does
+	 * not copy anything, and the returned board is not changed by later rolls.
+	 * 
+	 * @return a snapshot of the current faces of the dice
+	 */
+	public Board getBoard() {
+		return this.board;
 	}
 
 	/**
 	 * Returns true if the specified string is a legal Boggle word, and false
-	 * otherwise. A legal Boggle word is at least 3 letters long and can be
-	 * found in the dictionary.
+	 * otherwise. A legal Boggle word is at least 3 letters long, can be found
+	 * in the dictionary, and can be traced on the current dice by moving from
+	 * each die to one of its (up to 8) neighbours without using any die more
+	 * than once. The case of the string is not important, and the "QU" face
+	 * matches the two letters <code>q</code> and <code>u</code>.
+	 * 
+	 * <p>
+	 * This method does not modify the game, so it may be called by several
+	 * threads at once. A word is always checked against a single board, even
+	 * if the dice are rolled while the word is being checked.
 	 * 
 	 * @param s
 	 *            a string
@@ -101,11 +340,137 @@ public class Boggle {
 	 *         otherwise
 	 */
 	public boolean isABoggleWord(String s) {
-		if (s.length() >= 3 && dictionary.lookUp(s)) {
+		return this.isABoggleWord(s, this.board);
+	}
+
+	/**
+	 * Returns true if the specified string is a legal Boggle word on the
+	 * specified board, and false otherwise. This method is the same as
+	 * <code>isABoggleWord(s)</code> except that the word is traced on the
+	 * specified board instead of on the current dice; it lets callers check
+	 * words against a board from an earlier roll.
+	 * 
+	 * @param s
+	 *            a string
+	 * @param board
+	 *            the board the string must be traced on
+	 * @return true if the specified string is a legal Boggle word on the
+	 *         board, and false otherwise
+	 */
+	public boolean isABoggleWord(String s, Board board) {
+		if (s.length() >= 3 && dictionary.get().lookUp(s) && isOnBoard(board, s)) {
+			BoggleMetrics.get().acceptedWords.increment();
 			return true;
 		} else {
+			BoggleMetrics.get().rejectedWords.increment();
 			return false;
 		}
 
 	}
+
+	/**
+	 * Returns true if the specified string can be traced on the specified
+	 * board.
+	 * 
+	 * @param board
+	 *            a board
+	 * @param s
+	 *            a non-empty string
+	 * @return true if the string can be traced on the board, and false
+	 *         otherwise
+	 */
+	private static boolean isOnBoard(Board board, String s) {
+		Grid grid = board.grid();
+		for (int i = 0; i < grid.cells(); i++) {
+			if (isOnBoard(board, grid, s, 0, i, 0L)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if the part of the specified string starting at
+	 * <code>start</code> can be traced on the specified board starting from
+	 * the die with index <code>idx</code> without using any of the dice in
+	 * <code>visited</code>.
+	 * 
+	 * @param board
+	 *            the board the string is traced on
+	 * @param grid
+	 *            the geometry of the board
+	 * @param s
+	 *            the string being traced
+	 * @param start
+	 *            the index of the first character of s still to be matched
+	 * @param idx
+	 *            the index of the die to match next
+	 * @param visited
+	 *            a bit mask of the dice already used
+	 * @return true if the rest of the string can be traced, and false
+	 *         otherwise
+	 */
+	private static boolean isOnBoard(Board board, Grid grid, String s, int start, int idx, long visited) {
+		int next = start;
+		int code = board.code(idx);
+		if (code == Board.QU) {
+			if (next + 1 >= s.length() || Character.toLowerCase(s.charAt(next)) != 'q'
+					|| Character.toLowerCase(s.charAt(next + 1)) != 'u') {
+				return false;
+			}
+			next += 2;
+		} else {
+			if (Character.toLowerCase(s.charAt(next)) - 'a' != code) {
+				return false;
+			}
+			next++;
+		}
+		if (next == s.length()) {
+			return true;
+		}
+		visited |= 1L << idx;
+		for (long n = grid.neighbors(idx) & ~visited; n != 0; n &= n - 1) {
+			if (isOnBoard(board, grid, s, next, Long.numberOfTrailingZeros(n), visited)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns a new sorted map of every legal Boggle word that can be formed on
+	 * the current dice, mapped to the number of points each word is worth. The
+	 * dice are laid out in the order returned by <code>getDice</code>, in rows
+	 * of <code>getBoardSize().getRows()</code> dice.
+	 * 
+	 * @return a new sorted map of the words on the board and their scores
+	 */
+	public SortedMap<String, Integer> getAllWords() {
+		return this.solver().solve(this.board);
+	}
+
+	/**
+	 * Returns the solution of the current dice: every legal Boggle word that
+	 * can be formed on them, with its score, and the total score.
+	 * 
+	 * @return the solution of the current dice
+	 */
+	public Solution getSolution() {
+		return this.solver().solution(this.board);
+	}
+
+	/**
+	 * Returns the solver for the current dictionary, creating it if the
+	 * dictionary has changed since the solver was created.
+	 * 
+	 * @return the solver for the current dictionary
+	 */
+	private BoggleSolver solver() {
+		Dictionary d = this.dictionary.get();
+		if (this.solver == null || this.solverDictionary != d) {
+			this.solver = new BoggleSolver(d);
+			this.solverDictionary = d;
+		}
+		return this.solver;
+	}
 }
\ No newline at end of file
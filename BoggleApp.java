@@ -1,15 +1,47 @@
 package eecs2030.lab4;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
 /**
  * The Boggle application.
  * 
  */
 public class BoggleApp {
 
-	public static void main(String[] args) {
+	/**
+	 * Starts the app. The optional first argument is the number of rows of
+	 * dice on the board: 4 (the default), 5 or 6. The optional second argument
+	 * is a file that the seed of the game, the boards rolled and the words
+	 * submitted are appended to as a <code>GameLog</code>. The metrics of the
+	 * model are registered over JMX as <code>BoggleMetrics</code>.
+	 * 
+	 * @param args
+	 *            the number of rows of dice and the log file, if any
+	 * @throws IOException
+	 *             if the log file cannot be opened
+	 */
+	public static void main(String[] args) throws IOException {
+		BoardSize size = args.length > 0 ? BoardSize.forRows(Integer.parseInt(args[0])) : BoardSize.CLASSIC;
+		Dictionary dictionary = DictionaryRegistry.getDefault(size);
+		long seed = new SplittableRandom().nextLong();
 		BoggleController c = new BoggleController();
-		Boggle m = new Boggle();
-		BoggleView v = new BoggleView(c);
+		Boggle m = new Boggle(() -> dictionary, size, new SplittableRandom(seed));
+		if (args.length > 1) {
+			GameLog log = GameLog.open(Paths.get(args[1]));
+			log.seed(BoggleController.LOG_NAME, size, seed);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					log.close();
+				} catch (IOException e) {
+					// nothing more can be done while shutting down
+				}
+			}));
+			c.setLog(log);
+		}
+		BoggleMetrics.register();
+		BoggleView v = new BoggleView(c, size);
 		c.setModel(m);
 		c.setView(v);
 		v.setVisible(true);
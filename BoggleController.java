@@ -2,15 +2,99 @@ package eecs2030.lab4;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
 
 /**
  * The controller for the Boggle app.
  *
+ * <p>
+ * Implementation Details: The controller never calls the model on the Swing
+ * event dispatch thread. Rolling the dice and checking words are handed to a
+ * single background thread, so the model is only ever used by one thread at a
+ * time and requests are carried out in the order the user made them, and the
+ * results are applied to the view back on the event dispatch thread. Every
+ * roll starts a new generation; a result from an earlier generation is
+ * dropped instead of being applied, and a roll that has not started yet when
+ * the user rolls again is cancelled. The generation and the scorer are only
+ * used on the event dispatch thread, so they need no synchronization. Words
+ * are checked by a <code>RoomScoreboard</code> for the current board, which,
+ * like the round being logged, is only used by the background thread. A roll
+ * that fails, or a round that cannot be logged, is reported to the user with
+ * <code>BoggleView.showError</code>; a round that cannot be logged is played
+ * without being logged, as in <code>GameRoom</code>.
  */
 public class BoggleController implements ActionListener {
 
 	private Boggle model;
 	private BoggleView view;
+	private BoggleScorer scorer;
+
+	/**
+	 * The thread that runs the model.
+	 */
+	private final ExecutorService worker;
+
+	/**
+	 * The number of rolls the user has asked for.
+	 */
+	private int generation;
+
+	/**
+	 * The roll that is in progress, or null.
+	 */
+	private CompletableFuture<Outcome<Solution>> pendingRoll;
+
+	/**
+	 * The room name and player name that the games of the app are logged
+	 * with.
+	 */
+	static final String LOG_NAME = "local";
+
+	/**
+	 * The message shown to the user when the game log cannot be written.
+	 */
+	static final String LOG_FAILURE = "Cannot write the game log; this round is not being logged.";
+
+	/**
+	 * The outcome of a task run by the background thread: its result, and the
+	 * failure to log it, or null if it was logged or there is no log.
+	 *
+	 * @param <T>
+	 *            the type of the result
+	 */
+	static final class Outcome<T> {
+
+		final T result;
+		final UncheckedIOException logFailure;
+
+		Outcome(T result, UncheckedIOException logFailure) {
+			this.result = result;
+			this.logFailure = logFailure;
+		}
+	}
+
+	/**
+	 * The scoreboard of the board shown by the view, or of the board being
+	 * rolled; used only by the background thread.
+	 */
+	private RoomScoreboard round;
+
+	/**
+	 * The log the games are recorded in, or null.
+	 */
+	private volatile GameLog log;
+
+	/**
+	 * The log the current round is recorded in, or null, and the number of the
+	 * round in that log; used only by the background thread.
+	 */
+	private GameLog roundLog;
+	private int logged;
 
 	/**
 	 * Creates a controller with no model and no view.
@@ -18,6 +102,12 @@ public class BoggleController implements ActionListener {
 	public BoggleController() {
 		this.model = null;
 		this.view = null;
+		this.scorer = new BoggleScorer();
+		this.worker = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "boggle-model");
+			t.setDaemon(true);
+			return t;
+		});
 	}
 	
 	/**
@@ -29,6 +119,20 @@ public class BoggleController implements ActionListener {
 	 */
 	public void setModel(Boggle model) {
 		this.model = model;
+		this.round = new RoomScoreboard(model, model.getBoard());
+	}
+
+	/**
+	 * Sets the log that the boards rolled from now on and the words submitted
+	 * on them are recorded in. The boards are logged as the rounds of a room,
+	 * and the words as the words of a player, both named
+	 * <code>"local"</code>.
+	 *
+	 * @param log
+	 *            the log, or null to stop logging
+	 */
+	public void setLog(GameLog log) {
+		this.log = log;
 	}
 	
 	/**
@@ -56,15 +160,132 @@ public class BoggleController implements ActionListener {
 	public void actionPerformed(ActionEvent event) {
 		String command = event.getActionCommand();
 		if (command.equals(BoggleView.ROLL_COMMAND)) {
-			this.model.shuffleAndRoll();
-			this.view.setDice(this.model.getDice());
+			this.roll();
 		}
 		else if (command.equals(BoggleView.SUBMIT_COMMAND)) {
-			String word = this.view.getWord();
-			boolean isOk = this.model.isABoggleWord(word);
-			this.view.setWordIsValid(isOk);
+			this.submit(this.view.takeWord());
 		}
 	}
-	
-	  
+
+	/**
+	 * Rolls and solves the dice in the background and shows the new board,
+	 * with its solution for the view's hints, when it is ready, unless the
+	 * user has rolled again by then. If the roll fails, the previous board
+	 * stays in play and the failure is shown instead.
+	 */
+	private void roll() {
+		int g = ++this.generation;
+		if (this.pendingRoll != null) {
+			this.pendingRoll.cancel(false);
+		}
+		this.scorer.reset();
+		this.view.setScore(this.scorer.getScore());
+		Boggle m = this.model;
+		this.pendingRoll = CompletableFuture.supplyAsync(() -> this.rollModel(m), this.worker);
+		this.pendingRoll.whenCompleteAsync((outcome, failure) -> {
+			if (g != this.generation) {
+				return;
+			}
+			this.pendingRoll = null;
+			if (failure != null) {
+				this.view.showError("Cannot roll the dice: " + failure.getCause());
+				return;
+			}
+			this.view.setBoard(outcome.result.getBoard());
+			this.view.setSolution(outcome.result);
+			if (outcome.logFailure != null) {
+				this.view.showError(LOG_FAILURE);
+			}
+		}, SwingUtilities::invokeLater);
+	}
+
+	/**
+	 * Rolls and solves the dice of the specified model, makes the new board
+	 * the board that words are checked against, and logs it as a new round.
+	 * If the new board cannot be solved, the model and the round are left as
+	 * they were. If the round cannot be logged, it is played without being
+	 * logged. Runs on the background thread.
+	 *
+	 * @param m
+	 *            the model
+	 * @return the solution of the new board, and the failure to log it
+	 */
+	Outcome<Solution> rollModel(Boggle m) {
+		// the model keeps its previous board if the new one cannot be solved
+		Solution solution = m.shuffleRollAndSolve();
+		Board b = solution.getBoard();
+		// the new board is only put in play once nothing else can fail
+		this.round = new RoomScoreboard(m, b);
+		this.roundLog = this.log;
+		UncheckedIOException logFailure = null;
+		if (this.roundLog != null) {
+			try {
+				this.logged = this.roundLog.round(LOG_NAME, b);
+			} catch (UncheckedIOException e) {
+				this.roundLog = null;
+				logFailure = e;
+			}
+		}
+		return new Outcome<Solution>(solution, logFailure);
+	}
+
+	/**
+	 * Checks the specified word in the background against the board shown by
+	 * the view, and logs it, and reports the result when it is ready, unless
+	 * the user has rolled the dice by then. A word submitted while the dice
+	 * are being rolled is ignored. The result is reported even if the word
+	 * could not be logged.
+	 * 
+	 * @param word
+	 *            the submitted word
+	 */
+	private void submit(String word) {
+		if (this.pendingRoll != null) {
+			// the word was formed on the dice of the previous roll
+			return;
+		}
+		int g = this.generation;
+		CompletableFuture.supplyAsync(() -> this.check(word), this.worker).whenCompleteAsync((outcome, failure) -> {
+			if (g != this.generation) {
+				return;
+			}
+			if (failure != null) {
+				this.view.showError("Cannot check " + word + ": " + failure.getCause());
+				return;
+			}
+			GameRoom.Verdict verdict = outcome.result;
+			if (verdict == GameRoom.Verdict.ACCEPTED) {
+				this.scorer.accept(word);
+				this.view.setScore(this.scorer.getScore());
+			}
+			this.view.setWordIsValid(word, verdict != GameRoom.Verdict.REJECTED);
+			if (outcome.logFailure != null) {
+				this.view.showError(LOG_FAILURE);
+			}
+		}, SwingUtilities::invokeLater);
+	}
+
+	/**
+	 * Checks the specified word against the board in play and logs it. The
+	 * word is scored whether or not it can be logged; if it cannot, the rest
+	 * of the round is played without being logged. Runs on the background
+	 * thread.
+	 *
+	 * @param word
+	 *            the submitted word
+	 * @return the verdict on the word, and the failure to log it
+	 */
+	Outcome<GameRoom.Verdict> check(String word) {
+		GameRoom.Verdict verdict = this.round.submit(LOG_NAME, word);
+		UncheckedIOException logFailure = null;
+		if (this.roundLog != null) {
+			try {
+				this.roundLog.word(this.logged, LOG_NAME, word, verdict);
+			} catch (UncheckedIOException e) {
+				this.roundLog = null;
+				logFailure = e;
+			}
+		}
+		return new Outcome<GameRoom.Verdict>(verdict, logFailure);
+	}
 }
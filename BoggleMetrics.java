@@ -0,0 +1,325 @@
+package eecs2030.lab4;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for the Boggle model, kept for the whole
+ * Java virtual machine: how long dictionaries take to load and how many words
+ * they hold, how many words are looked up and how long a lookup takes, how
+ * often the words starting with a prefix are listed and how long that takes,
+ * how often the dice are rolled, and how many words are accepted and rejected
+ * by <code>Boggle.isABoggleWord</code>.
+ *
+ * <p>
+ * The metrics are recorded all the time. They can be read through the
+ * getters of this class, through JMX once <code>register</code> has been
+ * called, or as a snapshot, which an exporter can be sent at a fixed rate:
+ *
+ * <pre>
+ * BoggleMetrics.register();
+ * BoggleMetrics.get().export(MetricsExporter.toStream(System.out), 60000);
+ * </pre>
+ *
+ * <p>
+ * Implementation Details: Every counter is a <code>LongAdder</code> and every
+ * latency is recorded in a <code>LatencyHistogram</code>, so threads recording
+ * at the same time do not contend and recording allocates nothing. Dictionary
+ * lookups and prefix queries are counted on every call, but because a lookup
+ * takes not much longer than reading the clock, only one call in 64, chosen
+ * at random, is timed. Loading a dictionary is always timed.
+ */
+public final class BoggleMetrics implements BoggleMetricsMBean {
+
+	/**
+	 * The name the metrics are registered with in the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "eecs2030.lab4:type=BoggleMetrics";
+
+	/**
+	 * A counter of calls to an operation with a histogram of the latencies of
+	 * a random sample of the calls. A call is timed with:
+	 *
+	 * <pre>
+	 * long start = timer.start();
+	 * ...
+	 * timer.stop(start);
+	 * </pre>
+	 */
+	static final class Timer {
+
+		/**
+		 * The calls whose random number has these bits clear are timed.
+		 */
+		private static final int SAMPLE_MASK = 63;
+
+		/**
+		 * The start time of a call that is not timed.
+		 */
+		private static final long UNTIMED = Long.MIN_VALUE;
+
+		private final LongAdder calls = new LongAdder();
+
+		private final LatencyHistogram nanos = new LatencyHistogram();
+
+		/**
+		 * Counts a call, and returns the time the call started if it is timed.
+		 *
+		 * @return the value to pass to <code>stop</code> when the call ends
+		 */
+		long start() {
+			this.calls.increment();
+			if ((ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) != 0) {
+				return UNTIMED;
+			}
+			return System.nanoTime();
+		}
+
+		/**
+		 * Records the latency of a call if it is timed.
+		 *
+		 * @param start
+		 *            the value returned by <code>start</code> for the call
+		 */
+		void stop(long start) {
+			if (start != UNTIMED) {
+				this.nanos.record(System.nanoTime() - start);
+			}
+		}
+	}
+
+	private static final Logger LOGGER = Logger.getLogger(BoggleMetrics.class.getName());
+
+	private static final BoggleMetrics INSTANCE = new BoggleMetrics();
+
+	/**
+	 * The thread that sends snapshots to exporters; started when the first
+	 * exporter is added.
+	 */
+	private static final ScheduledExecutorService EXPORTER = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "metrics-exporter");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final LatencyHistogram dictionaryLoadNanos = new LatencyHistogram();
+
+	private volatile int dictionaryWordCount;
+
+	final Timer lookUps = new Timer();
+
+	final Timer prefixQueries = new Timer();
+
+	final LongAdder rolls = new LongAdder();
+
+	final LongAdder acceptedWords = new LongAdder();
+
+	final LongAdder rejectedWords = new LongAdder();
+
+	private BoggleMetrics() {
+	}
+
+	/**
+	 * Returns the metrics of the Boggle model.
+	 *
+	 * @return the metrics of the Boggle model
+	 */
+	public static BoggleMetrics get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server under the name
+	 * <code>OBJECT_NAME</code>, unless they are already registered.
+	 *
+	 * @throws IllegalStateException
+	 *             if the metrics cannot be registered
+	 */
+	public static synchronized void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(INSTANCE, name);
+			}
+		} catch (InstanceAlreadyExistsException e) {
+			// registered by another class loader
+		} catch (JMException e) {
+			throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+		}
+	}
+
+	/**
+	 * Records that a dictionary of the specified number of words was loaded
+	 * in the specified number of nanoseconds.
+	 *
+	 * @param nanos
+	 *            the time taken to load the dictionary
+	 * @param words
+	 *            the number of words in the dictionary
+	 */
+	void dictionaryLoaded(long nanos, int words) {
+		this.dictionaryLoadNanos.record(nanos);
+		this.dictionaryWordCount = words;
+	}
+
+	@Override
+	public long getDictionaryLoads() {
+		return this.dictionaryLoadNanos.getCount();
+	}
+
+	@Override
+	public int getDictionaryWordCount() {
+		return this.dictionaryWordCount;
+	}
+
+	@Override
+	public double getDictionaryLoadMeanMillis() {
+		return this.dictionaryLoadNanos.getMean() / 1e6;
+	}
+
+	@Override
+	public double getDictionaryLoadMaximumMillis() {
+		return this.dictionaryLoadNanos.getMaximum() / 1e6;
+	}
+
+	@Override
+	public long getLookUps() {
+		return this.lookUps.calls.sum();
+	}
+
+	@Override
+	public double getLookUpMeanNanos() {
+		return this.lookUps.nanos.getMean();
+	}
+
+	@Override
+	public long getLookUpMedianNanos() {
+		return this.lookUps.nanos.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getLookUp99thPercentileNanos() {
+		return this.lookUps.nanos.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getPrefixQueries() {
+		return this.prefixQueries.calls.sum();
+	}
+
+	@Override
+	public double getPrefixQueryMeanNanos() {
+		return this.prefixQueries.nanos.getMean();
+	}
+
+	@Override
+	public long getPrefixQueryMedianNanos() {
+		return this.prefixQueries.nanos.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getPrefixQuery99thPercentileNanos() {
+		return this.prefixQueries.nanos.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getRolls() {
+		return this.rolls.sum();
+	}
+
+	@Override
+	public long getAcceptedWords() {
+		return this.acceptedWords.sum();
+	}
+
+	@Override
+	public long getRejectedWords() {
+		return this.rejectedWords.sum();
+	}
+
+	/**
+	 * Returns a new sorted map from the name of every metric to its current
+	 * value. The metrics are read one at a time, so values recorded while the
+	 * snapshot is taken may or may not be included.
+	 *
+	 * @return the value of every metric, by name
+	 */
+	public SortedMap<String, Number> snapshot() {
+		SortedMap<String, Number> metrics = new TreeMap<String, Number>();
+		metrics.put("boggle.rolls", this.getRolls());
+		metrics.put("boggle.words.accepted", this.getAcceptedWords());
+		metrics.put("boggle.words.rejected", this.getRejectedWords());
+		metrics.put("dictionary.loads", this.getDictionaryLoads());
+		metrics.put("dictionary.load.mean.ms", this.getDictionaryLoadMeanMillis());
+		metrics.put("dictionary.load.max.ms", this.getDictionaryLoadMaximumMillis());
+		metrics.put("dictionary.words", this.getDictionaryWordCount());
+		metrics.put("dictionary.lookups", this.getLookUps());
+		metrics.put("dictionary.lookup.mean.ns", this.getLookUpMeanNanos());
+		metrics.put("dictionary.lookup.p50.ns", this.getLookUpMedianNanos());
+		metrics.put("dictionary.lookup.p99.ns", this.getLookUp99thPercentileNanos());
+		metrics.put("dictionary.prefix.queries", this.getPrefixQueries());
+		metrics.put("dictionary.prefix.mean.ns", this.getPrefixQueryMeanNanos());
+		metrics.put("dictionary.prefix.p50.ns", this.getPrefixQueryMedianNanos());
+		metrics.put("dictionary.prefix.p99.ns", this.getPrefixQuery99thPercentileNanos());
+		return metrics;
+	}
+
+	/**
+	 * Sends a snapshot of the metrics to the specified exporter every
+	 * <code>periodMillis</code> milliseconds on a background thread. An
+	 * exporter that throws an exception is called again at the next period.
+	 * The first exception of a run of failures is logged as a warning, and the
+	 * rest at a finer level, so that an exporter that keeps failing does not
+	 * flood the log.
+	 *
+	 * @param exporter
+	 *            receives the snapshots
+	 * @param periodMillis
+	 *            the number of milliseconds between snapshots
+	 * @return a future that can be cancelled to stop exporting
+	 */
+	public ScheduledFuture<?> export(MetricsExporter exporter, long periodMillis) {
+		// whether the previous export failed; only used on the exporter thread
+		boolean[] failing = { false };
+		return EXPORTER.scheduleAtFixedRate(() -> {
+			try {
+				Map<String, Number> metrics = this.snapshot();
+				exporter.export(metrics);
+				failing[0] = false;
+			} catch (RuntimeException e) {
+				// try again at the next period
+				LOGGER.log(failing[0] ? Level.FINE : Level.WARNING, "cannot export the metrics", e);
+				failing[0] = true;
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns a string describing the metrics, for example
+	 * <code>"4 rolls, 17 accepted, 3 rejected, 1 dictionaries, 120000 lookups (p50 90 ns, p99 300 ns)"</code>.
+	 *
+	 * @return a string describing the metrics
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d rolls, %d accepted, %d rejected, %d dictionaries, %d lookups (p50 %d ns, p99 %d ns)",
+				this.getRolls(), this.getAcceptedWords(), this.getRejectedWords(), this.getDictionaryLoads(),
+				this.getLookUps(), this.getLookUpMedianNanos(), this.getLookUp99thPercentileNanos());
+	}
+}
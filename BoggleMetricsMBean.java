@@ -0,0 +1,120 @@
+package eecs2030.lab4;
+
+/**
+ * The management interface through which <code>BoggleMetrics</code> is
+ * exposed over JMX. Latencies of dictionary lookups are measured on a sample
+ * of the calls.
+ */
+public interface BoggleMetricsMBean {
+
+	/**
+	 * Returns the number of dictionaries loaded.
+	 *
+	 * @return the number of dictionaries loaded
+	 */
+	long getDictionaryLoads();
+
+	/**
+	 * Returns the number of words in the dictionary loaded most recently.
+	 *
+	 * @return the number of words in the latest dictionary
+	 */
+	int getDictionaryWordCount();
+
+	/**
+	 * Returns the mean number of milliseconds taken to load a dictionary.
+	 *
+	 * @return the mean load time in milliseconds
+	 */
+	double getDictionaryLoadMeanMillis();
+
+	/**
+	 * Returns the largest number of milliseconds taken to load a dictionary.
+	 *
+	 * @return the largest load time in milliseconds
+	 */
+	double getDictionaryLoadMaximumMillis();
+
+	/**
+	 * Returns the number of words looked up in dictionaries.
+	 *
+	 * @return the number of lookups
+	 */
+	long getLookUps();
+
+	/**
+	 * Returns the mean number of nanoseconds taken to look up a word.
+	 *
+	 * @return the mean lookup latency in nanoseconds
+	 */
+	double getLookUpMeanNanos();
+
+	/**
+	 * Returns the median number of nanoseconds taken to look up a word.
+	 *
+	 * @return the median lookup latency in nanoseconds
+	 */
+	long getLookUpMedianNanos();
+
+	/**
+	 * Returns the 99th percentile of the number of nanoseconds taken to look
+	 * up a word.
+	 *
+	 * @return the 99th percentile lookup latency in nanoseconds
+	 */
+	long getLookUp99thPercentileNanos();
+
+	/**
+	 * Returns the number of calls to <code>Dictionary.wordsStartingWith</code>.
+	 *
+	 * @return the number of prefix queries
+	 */
+	long getPrefixQueries();
+
+	/**
+	 * Returns the mean number of nanoseconds taken to list the words starting
+	 * with a prefix.
+	 *
+	 * @return the mean prefix query latency in nanoseconds
+	 */
+	double getPrefixQueryMeanNanos();
+
+	/**
+	 * Returns the median number of nanoseconds taken to list the words
+	 * starting with a prefix.
+	 *
+	 * @return the median prefix query latency in nanoseconds
+	 */
+	long getPrefixQueryMedianNanos();
+
+	/**
+	 * Returns the 99th percentile of the number of nanoseconds taken to list
+	 * the words starting with a prefix.
+	 *
+	 * @return the 99th percentile prefix query latency in nanoseconds
+	 */
+	long getPrefixQuery99thPercentileNanos();
+
+	/**
+	 * Returns the number of calls to <code>Boggle.shuffleAndRoll</code>.
+	 *
+	 * @return the number of rolls
+	 */
+	long getRolls();
+
+	/**
+	 * Returns the number of words <code>Boggle.isABoggleWord</code> has
+	 * accepted.
+	 *
+	 * @return the number of accepted words
+	 */
+	long getAcceptedWords();
+
+	/**
+	 * Returns the number of words <code>Boggle.isABoggleWord</code> has
+	 * rejected.
+	 *
+	 * @return the number of rejected words
+	 */
+	long getRejectedWords();
+}
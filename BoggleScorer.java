@@ -0,0 +1,130 @@
+package eecs2030.lab4;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A class that keeps the running score of one player using the standard
+ * Boggle scoring rules.
+ *
+ * <p>
+ * The standard rules award points by the number of letters in a word:
+ *
+ * <table summary="Points awarded for each word length">
+ * <tr>
+ * <th>Letters&nbsp;&nbsp;&nbsp;</th>
+ * <th>Points</th>
+ * </tr>
+ * <tr>
+ * <td>3 or 4</td>
+ * <td>1</td>
+ * </tr>
+ * <tr>
+ * <td>5</td>
+ * <td>2</td>
+ * </tr>
+ * <tr>
+ * <td>6</td>
+ * <td>3</td>
+ * </tr>
+ * <tr>
+ * <td>7</td>
+ * <td>5</td>
+ * </tr>
+ * <tr>
+ * <td>8 or more</td>
+ * <td>11</td>
+ * </tr>
+ * </table>
+ *
+ * <p>
+ * The <code>"QU"</code> face counts as two letters, so a word is scored by the
+ * length of the word as it is spelled, not by the number of dice used to trace
+ * it.
+ *
+ * <p>
+ * Implementation Details: The scorer keeps the total score and the set of
+ * words accepted so far, so accepting a word takes constant time no matter how
+ * many words have already been accepted, and a word is never scored twice.
+ */
+public class BoggleScorer {
+
+	/**
+	 * The points awarded for a word of each length up to 8 letters.
+	 */
+	private static final int[] POINTS = { 0, 0, 0, 1, 1, 2, 3, 5, 11 };
+
+	private final Set<String> words = new HashSet<String>();
+
+	private int score = 0;
+
+	/**
+	 * Returns the number of points a word of the specified length is worth.
+	 * Words shorter than 3 letters are worth nothing.
+	 *
+	 * @param length
+	 *            the number of letters in a word
+	 * @return the number of points the word is worth
+	 */
+	public static int pointsFor(int length) {
+		return POINTS[Math.min(length, POINTS.length - 1)];
+	}
+
+	/**
+	 * Returns the number of points the specified word is worth.
+	 *
+	 * @param word
+	 *            a word
+	 * @return the number of points the word is worth
+	 */
+	public static int pointsFor(String word) {
+		return pointsFor(word.length());
+	}
+
+	/**
+	 * Adds the specified word to the words accepted from the player and
+	 * returns the number of points it added to the player's score. A word that
+	 * has already been accepted adds nothing. The case of the word is not
+	 * important.
+	 *
+	 * @param word
+	 *            a legal Boggle word
+	 * @return the number of points added to the score
+	 */
+	public int accept(String word) {
+		if (!this.words.add(word.toLowerCase(Locale.ROOT))) {
+			return 0;
+		}
+		int points = pointsFor(word);
+		this.score += points;
+		return points;
+	}
+
+	/**
+	 * Returns the total score of the words accepted so far.
+	 *
+	 * @return the total score
+	 */
+	public int getScore() {
+		return this.score;
+	}
+
+	/**
+	 * Returns the number of words accepted so far.
+	 *
+	 * @return the number of words accepted
+	 */
+	public int getWordCount() {
+		return this.words.size();
+	}
+
+	/**
+	 * Forgets every accepted word and sets the score back to 0, for example at
+	 * the start of a new round.
+	 */
+	public void reset() {
+		this.words.clear();
+		this.score = 0;
+	}
+}
@@ -0,0 +1,588 @@
+package eecs2030.lab4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A headless Boggle server that hosts any number of concurrent game rooms and
+ * accepts commands over a line-based TCP protocol on the loopback interface.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java eecs2030.lab4.BoggleServer [port [roundSeconds [dictionary [log]]]]
+ * </pre>
+ *
+ * <p>
+ * The port defaults to 2030 and the length of a round to 180 seconds. The
+ * dictionary may be a word list or a compiled dictionary; the default
+ * dictionary is used if none is given. Every room shares the one dictionary.
+ * A dictionary file given on the command line is checked every few seconds and
+ * reloaded in the background when it changes, so the word list can be updated
+ * without restarting the server; a compiled dictionary must be updated by
+ * replacing the file, for example with <code>DictionaryCompiler</code>, not
+ * by rewriting it in place. Boards for new rounds are rolled and solved
+ * ahead of time by a <code>BoardPool</code>, which starts again with the new
+ * dictionary whenever the dictionary is reloaded. If a log file is given, the
+ * boards of every room and the words submitted in them are appended to it as
+ * a <code>GameLog</code>, which <code>GameReplay</code> can replay. The
+ * metrics of the model are registered over JMX as <code>BoggleMetrics</code>.
+ *
+ * <p>
+ * Each command is a single line, and the server answers every command with a
+ * single line:
+ *
+ * <table summary="Protocol commands">
+ * <tr>
+ * <th>Command</th>
+ * <th>Reply</th>
+ * </tr>
+ * <tr>
+ * <td><code>JOIN room player</code></td>
+ * <td><code>ROUND number millisLeft faces</code></td>
+ * </tr>
+ * <tr>
+ * <td><code>ROUND</code></td>
+ * <td><code>ROUND number millisLeft faces</code></td>
+ * </tr>
+ * <tr>
+ * <td><code>WORD word</code></td>
+ * <td><code>ACCEPTED word</code>, <code>REJECTED word</code>,
+ * <code>DUPLICATE word</code> or <code>CLOSED word</code></td>
+ * </tr>
+ * <tr>
+ * <td><code>SCORE</code></td>
+ * <td><code>SCORE points</code></td>
+ * </tr>
+ * <tr>
+ * <td><code>RESULTS</code></td>
+ * <td><code>RESULTS player=points,...</code>, the scores of the current round
+ * with words found by more than one player cancelled</td>
+ * </tr>
+ * <tr>
+ * <td><code>QUIT</code></td>
+ * <td><code>BYE</code>, after which the connection is closed</td>
+ * </tr>
+ * </table>
+ *
+ * <p>
+ * <code>faces</code> is the faces of the board in row-major order separated
+ * by commas. Any other command, a command other than <code>JOIN</code>
+ * before joining a room, a name or word longer than
+ * <code>GameLog.MAX_STRING_LENGTH</code> characters, or a player name
+ * containing <code>,</code> or <code>=</code>, is answered with
+ * <code>ERROR message</code>.
+ *
+ * <p>
+ * If the game log cannot be written, the failure is reported once through
+ * <code>java.util.logging</code> and the server stops logging; every command
+ * is still carried out and answered as usual.
+ *
+ * <p>
+ * A room is created when a player first joins it. A room that no connection
+ * has joined for <code>IDLE_ROUNDS</code> round lengths, and whose round has
+ * ended, is removed; a player who joins it later gets a new room. A server
+ * holds at most a fixed number of rooms, and a <code>JOIN</code> that would
+ * create another room while every room is in use is answered with
+ * <code>ERROR</code>.
+ *
+ * <p>
+ * Every connection is served by its own virtual thread when the Java runtime
+ * supports virtual threads, so a single server can hold thousands of
+ * connections at once; on older runtimes every connection is served by its own
+ * platform thread.
+ */
+public class BoggleServer {
+
+	/**
+	 * How often a dictionary file given on the command line is checked for
+	 * changes.
+	 */
+	private static final long RELOAD_CHECK_MILLIS = 5000;
+
+	private static final Logger LOGGER = Logger.getLogger(BoggleServer.class.getName());
+
+	/**
+	 * The number of boards kept ready for new rounds.
+	 */
+	private static final int POOL_CAPACITY = 64;
+
+	/**
+	 * The largest number of rooms a server holds by default.
+	 */
+	public static final int MAX_ROOMS = 10000;
+
+	/**
+	 * The number of round lengths a room must go without a connection before
+	 * it is removed.
+	 */
+	public static final int IDLE_ROUNDS = 3;
+
+	/**
+	 * A room and the number of connections that have joined it.
+	 */
+	private static final class Occupancy {
+
+		private final GameRoom room;
+
+		/**
+		 * The number of connections in the room; guarded by the map of rooms.
+		 */
+		private int sessions;
+
+		/**
+		 * The value of <code>System.nanoTime</code> when the last connection
+		 * left the room or the room was created; guarded by the map of rooms.
+		 */
+		private long emptySince = System.nanoTime();
+
+		private Occupancy(GameRoom room) {
+			this.room = room;
+		}
+	}
+
+	private final Supplier<Dictionary> dictionary;
+
+	private final long roundMillis;
+
+	private final int maxRooms;
+
+	/**
+	 * The pool the rooms take their boards from, or null.
+	 */
+	private final BoardPool pool;
+
+	private final ConcurrentMap<String, Occupancy> rooms = new ConcurrentHashMap<String, Occupancy>();
+
+	/**
+	 * The value of <code>System.nanoTime</code> when idle rooms were last
+	 * removed.
+	 */
+	private volatile long lastSweep = System.nanoTime();
+
+	/**
+	 * The log the rooms record their rounds in, or null.
+	 */
+	private volatile GameLog log;
+
+	/**
+	 * Initializes a server whose rooms share the dictionary returned by the
+	 * specified supplier.
+	 *
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 */
+	public BoggleServer(Supplier<Dictionary> dictionary, long roundMillis) {
+		this(dictionary, null, roundMillis);
+	}
+
+	/**
+	 * Initializes a server whose rooms share the dictionary returned by the
+	 * specified supplier and take their boards from the specified pool
+	 * whenever it has a board ready.
+	 *
+	 * @pre. the boards of the pool are classic 4 by 4 boards
+	 *
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param pool
+	 *            the pool of boards, or null
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 */
+	public BoggleServer(Supplier<Dictionary> dictionary, BoardPool pool, long roundMillis) {
+		this(dictionary, pool, roundMillis, MAX_ROOMS);
+	}
+
+	/**
+	 * Initializes a server whose rooms share the dictionary returned by the
+	 * specified supplier and take their boards from the specified pool
+	 * whenever it has a board ready, and which holds at most the specified
+	 * number of rooms.
+	 *
+	 * @pre. the boards of the pool are classic 4 by 4 boards
+	 *
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param pool
+	 *            the pool of boards, or null
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 * @param maxRooms
+	 *            the largest number of rooms
+	 */
+	public BoggleServer(Supplier<Dictionary> dictionary, BoardPool pool, long roundMillis, int maxRooms) {
+		this.dictionary = dictionary;
+		this.pool = pool;
+		this.roundMillis = roundMillis;
+		this.maxRooms = maxRooms;
+	}
+
+	/**
+	 * Returns the room with the specified name, creating it if it does not
+	 * exist yet. A room returned by this method that no connection joins is
+	 * removed once it has been idle for <code>IDLE_ROUNDS</code> round
+	 * lengths.
+	 *
+	 * @param name
+	 *            the name of the room
+	 * @return the room with the specified name, or null if the room does not
+	 *         exist and the server already holds its largest number of rooms
+	 */
+	public GameRoom room(String name) {
+		Occupancy o = this.occupy(name, 0);
+		return o == null ? null : o.room;
+	}
+
+	/**
+	 * Returns the number of rooms the server holds.
+	 *
+	 * @return the number of rooms
+	 */
+	public int getRoomCount() {
+		return this.rooms.size();
+	}
+
+	/**
+	 * Adds the specified number of connections to the room with the specified
+	 * name, creating the room if it does not exist yet and the server has room
+	 * for it.
+	 *
+	 * @param name
+	 *            the name of the room
+	 * @param sessions
+	 *            the number of connections joining the room
+	 * @return the room, or null if the room does not exist and the server
+	 *         already holds its largest number of rooms
+	 */
+	private Occupancy occupy(String name, int sessions) {
+		if (!this.rooms.containsKey(name)) {
+			this.sweep();
+		}
+		return this.rooms.compute(name, (n, o) -> {
+			if (o == null) {
+				if (this.rooms.size() >= this.maxRooms) {
+					return null;
+				}
+				GameRoom room = new GameRoom(n, this.dictionary, BoardSize.CLASSIC, this.pool, this.roundMillis);
+				this.setLog(room, this.log);
+				o = new Occupancy(room);
+			}
+			o.sessions += sessions;
+			return o;
+		});
+	}
+
+	/**
+	 * Removes a connection from the specified room.
+	 *
+	 * @param room
+	 *            a room that the connection joined
+	 */
+	private void leave(GameRoom room) {
+		this.rooms.computeIfPresent(room.getName(), (n, o) -> {
+			if (o.room == room && --o.sessions == 0) {
+				o.emptySince = System.nanoTime();
+			}
+			return o;
+		});
+	}
+
+	/**
+	 * Removes the rooms that no connection has joined for
+	 * <code>IDLE_ROUNDS</code> round lengths and whose rounds have ended. The
+	 * rooms are only checked if the server is full or they have not been
+	 * checked for a round length, so creating rooms stays cheap.
+	 */
+	private void sweep() {
+		long now = System.nanoTime();
+		long roundNanos = TimeUnit.MILLISECONDS.toNanos(this.roundMillis);
+		if (this.rooms.size() < this.maxRooms && now - this.lastSweep < roundNanos) {
+			return;
+		}
+		this.lastSweep = now;
+		long idleNanos = IDLE_ROUNDS * roundNanos;
+		for (String name : this.rooms.keySet()) {
+			this.rooms.computeIfPresent(name, (n, o) -> o.sessions == 0 && now - o.emptySince >= idleNanos
+					&& o.room.isRoundOver() ? null : o);
+		}
+	}
+
+	/**
+	 * Sets the log that every room records its rounds in, starting with the
+	 * next round of each room. If the log cannot be written, the failure is
+	 * reported once and the rooms stop logging.
+	 *
+	 * @param log
+	 *            the log, or null to stop logging
+	 */
+	public void setLog(GameLog log) {
+		this.log = log;
+		for (Occupancy o : this.rooms.values()) {
+			this.setLog(o.room, log);
+		}
+	}
+
+	/**
+	 * Sets the log that the specified room records its rounds in.
+	 *
+	 * @param room
+	 *            a room of this server
+	 * @param log
+	 *            the log, or null to stop logging
+	 */
+	private void setLog(GameRoom room, GameLog log) {
+		room.setLog(log, e -> this.logFailed(log, e));
+	}
+
+	/**
+	 * Reports the failure of the specified log, unless it has already been
+	 * reported, and stops new rooms from using it; every room stops using it
+	 * by itself.
+	 *
+	 * @param failed
+	 *            the log that failed
+	 * @param e
+	 *            the failure
+	 */
+	private synchronized void logFailed(GameLog failed, UncheckedIOException e) {
+		if (this.log == failed) {
+			this.log = null;
+			LOGGER.log(Level.SEVERE, "cannot write the game log; the rooms stop logging", e);
+		}
+	}
+
+	/**
+	 * Accepts connections on the specified server socket until the socket is
+	 * closed.
+	 *
+	 * @param server
+	 *            a bound server socket
+	 * @throws IOException
+	 *             if accepting a connection fails
+	 */
+	public void serve(ServerSocket server) throws IOException {
+		ExecutorService connections = newConnectionExecutor();
+		try {
+			while (!server.isClosed()) {
+				Socket socket = server.accept();
+				connections.execute(() -> this.handle(socket));
+			}
+		} finally {
+			connections.shutdown();
+		}
+	}
+
+	/**
+	 * Returns an executor that runs every task in a new virtual thread, or in
+	 * a new platform thread if the runtime does not support virtual threads.
+	 *
+	 * @return an executor that runs each task in its own thread
+	 */
+	private static ExecutorService newConnectionExecutor() {
+		try {
+			// looked up reflectively so that the server still runs on runtimes
+			// older than Java 21
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Serves a single connection until the client quits or disconnects.
+	 *
+	 * @param socket
+	 *            the connection to serve
+	 */
+	private void handle(Socket socket) {
+		Session session = new Session();
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String reply = session.execute(line.trim());
+				out.println(reply);
+				if (reply.equals("BYE")) {
+					break;
+				}
+			}
+		} catch (IOException e) {
+			// the client disconnected; nothing to clean up
+		} finally {
+			session.leave();
+		}
+	}
+
+	/**
+	 * The state of a single connection.
+	 */
+	private final class Session {
+
+		private GameRoom room;
+
+		private String player;
+
+		/**
+		 * Executes a command and returns the reply.
+		 *
+		 * @param line
+		 *            a command
+		 * @return the reply to the command
+		 */
+		String execute(String line) {
+			String[] parts = line.split("\\s+");
+			String command = parts[0].toUpperCase(Locale.ROOT);
+			if (command.equals("QUIT")) {
+				return "BYE";
+			}
+			if (command.equals("JOIN")) {
+				if (parts.length != 3) {
+					return "ERROR usage: JOIN room player";
+				}
+				if (tooLong(parts[1]) || tooLong(parts[2])) {
+					return "ERROR names are limited to " + GameLog.MAX_STRING_LENGTH + " characters";
+				}
+				if (parts[2].indexOf(',') >= 0 || parts[2].indexOf('=') >= 0) {
+					return "ERROR player names cannot contain , or =";
+				}
+				Occupancy joined = BoggleServer.this.occupy(parts[1], 1);
+				if (joined == null) {
+					return "ERROR too many rooms";
+				}
+				this.leave();
+				this.room = joined.room;
+				this.player = parts[2];
+				return describe(this.room.currentRound());
+			}
+			if (this.room == null) {
+				return "ERROR join a room first";
+			}
+			if (command.equals("ROUND") && parts.length == 1) {
+				return describe(this.room.currentRound());
+			}
+			if (command.equals("WORD") && parts.length == 2) {
+				if (tooLong(parts[1])) {
+					return "ERROR words are limited to " + GameLog.MAX_STRING_LENGTH + " characters";
+				}
+				return this.room.submit(this.player, parts[1]) + " " + parts[1];
+			}
+			if (command.equals("SCORE") && parts.length == 1) {
+				return "SCORE " + this.room.getScore(this.player);
+			}
+			if (command.equals("RESULTS") && parts.length == 1) {
+				return "RESULTS " + results(this.room.getFinalScores());
+			}
+			return "ERROR unknown command: " + line;
+		}
+
+		/**
+		 * Leaves the room the connection has joined, if any.
+		 */
+		void leave() {
+			if (this.room != null) {
+				BoggleServer.this.leave(this.room);
+				this.room = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the specified name or word is too long to be logged.
+	 *
+	 * @param s
+	 *            a name or word sent by a client
+	 * @return true if the string is too long to be logged
+	 */
+	private static boolean tooLong(String s) {
+		return s.length() > GameLog.MAX_STRING_LENGTH;
+	}
+
+	/**
+	 * Returns the scores of a round as <code>player=points</code> pairs
+	 * separated by commas.
+	 *
+	 * @param scores
+	 *            the points of each player
+	 * @return the scores of the round
+	 */
+	private static String results(Map<String, Integer> scores) {
+		StringBuilder b = new StringBuilder();
+		for (Map.Entry<String, Integer> e : scores.entrySet()) {
+			if (b.length() > 0) {
+				b.append(',');
+			}
+			b.append(e.getKey()).append('=').append(e.getValue());
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Returns the reply describing the specified round.
+	 *
+	 * @param round
+	 *            a round
+	 * @return the reply describing the round
+	 */
+	private static String describe(GameRoom.Round round) {
+		String faces = round.getBoard().toString().replace(" ", "");
+		return "ROUND " + round.getNumber() + " " + round.getMillisLeft() + " " + faces;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 2030;
+		long roundSeconds = args.length > 1 ? Long.parseLong(args[1]) : 180;
+		DictionaryLoader dictionary;
+		if (args.length > 2) {
+			Path file = Paths.get(args[2]);
+			dictionary = new DictionaryLoader(Dictionary.load(file, new DiceFilter(BoardSize.CLASSIC)), BoardSize.CLASSIC);
+			dictionary.watch(file, RELOAD_CHECK_MILLIS);
+		} else {
+			dictionary = new DictionaryLoader(DictionaryRegistry.getDefault(BoardSize.CLASSIC), BoardSize.CLASSIC);
+		}
+		BoardPool pool = new BoardPool(new BoardFilter.Builder(dictionary.get()).build(), POOL_CAPACITY);
+		// boards solved with an old dictionary are not dealt after a reload
+		dictionary.addListener(d -> pool.setFilter(new BoardFilter.Builder(d).build()));
+		BoggleServer server = new BoggleServer(dictionary, pool, roundSeconds * 1000);
+		BoggleMetrics.register();
+		if (args.length > 3) {
+			GameLog log = GameLog.open(Paths.get(args[3]));
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					log.close();
+				} catch (IOException e) {
+					// nothing more can be done while shutting down
+				}
+			}));
+			server.setLog(log);
+		}
+		try (ServerSocket socket = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+			System.out.println("Boggle server listening on " + socket.getLocalSocketAddress());
+			server.serve(socket);
+		}
+	}
+}
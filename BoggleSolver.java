@@ -0,0 +1,223 @@
+package eecs2030.lab4;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A class that finds every legal Boggle word on a board of any size.
+ *
+ * <p>
+ * Implementation Details: The solver performs a depth-first search from every
+ * die, following the 8 neighbours of each die (the same neighbours that the
+ * view allows the user to select next). The search walks the dictionary trie
+ * as it goes and abandons a path as soon as the letters along it are not the
+ * start of any word. A word that can be traced along several paths is reported
+ * once.
+ *
+ * <p>
+ * A solver reuses its working storage between calls to <code>solve</code>, so
+ * a solver should not be shared between threads; use one solver per thread
+ * instead. The <code>count</code> methods find the same words as
+ * <code>solve</code> but only count them, and allocate nothing.
+ */
+public class BoggleSolver {
+
+	/**
+	 * The minimum number of letters in a legal Boggle word.
+	 */
+	public static final int MINIMUM_WORD_LENGTH = 3;
+
+	private final Trie trie;
+
+	/**
+	 * The search stamp of the last search that reported the word ending at
+	 * each trie node; used to report each word once per board.
+	 */
+	private final int[] seen;
+
+	private int stamp = 0;
+
+	/**
+	 * The face codes of the board being solved.
+	 */
+	private byte[] codes;
+
+	/**
+	 * The geometry of the board being solved.
+	 */
+	private Grid grid;
+
+	/**
+	 * The letters along the current search path; long enough for a path
+	 * through every die of the largest board, each showing <code>"QU"</code>.
+	 */
+	private final char[] path = new char[2 * Grid.MAXIMUM_CELLS];
+
+	/**
+	 * The words found so far, or null if the words are only being counted.
+	 */
+	private SortedMap<String, Integer> words;
+
+	private int wordCount;
+
+	private int score;
+
+	/**
+	 * Initializes a solver that finds the words of the specified dictionary.
+	 *
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 */
+	public BoggleSolver(Dictionary dictionary) {
+		this.trie = dictionary.trie();
+		this.seen = new int[this.trie.nodeCount()];
+	}
+
+	/**
+	 * Returns a new sorted map of every legal Boggle word that can be traced on
+	 * the current faces of the specified dice, mapped to the number of points
+	 * each word is worth. The dice are laid out in row-major order on a square
+	 * board.
+	 *
+	 * @param dice
+	 *            a list of Boggle dice
+	 * @return a new sorted map of the words on the board and their scores
+	 */
+	public SortedMap<String, Integer> solve(List<Die> dice) {
+		return this.solve(Board.of(dice));
+	}
+
+	/**
+	 * Returns a new sorted map of every legal Boggle word that can be traced on
+	 * the specified board, mapped to the number of points each word is worth.
+	 *
+	 * @param board
+	 *            a board
+	 * @return a new sorted map of the words on the board and their scores
+	 */
+	public SortedMap<String, Integer> solve(Board board) {
+		this.words = new TreeMap<String, Integer>();
+		this.search(board.codes());
+		SortedMap<String, Integer> result = this.words;
+		this.words = null;
+		return result;
+	}
+
+	/**
+	 * Returns the solution of the specified board: every legal Boggle word that
+	 * can be traced on the board, with its score and the total score.
+	 *
+	 * @param board
+	 *            a board
+	 * @return the solution of the board
+	 */
+	public Solution solution(Board board) {
+		SortedMap<String, Integer> words = this.solve(board);
+		return new Solution(board, words, this.score);
+	}
+
+	/**
+	 * Returns the number of legal Boggle words that can be traced on the
+	 * specified board. The total score of the words is available from
+	 * <code>getScore</code> until the next board is solved.
+	 *
+	 * @param board
+	 *            a board
+	 * @return the number of words on the board
+	 */
+	public int count(Board board) {
+		return this.count(board.codes());
+	}
+
+	/**
+	 * Returns the number of legal Boggle words that can be traced on the board
+	 * with the specified face codes.
+	 *
+	 * @param codes
+	 *            the face codes of a square board of dice, encoded as by
+	 *            <code>Board</code>
+	 * @return the number of words on the board
+	 */
+	int count(byte[] codes) {
+		this.search(codes);
+		return this.wordCount;
+	}
+
+	/**
+	 * Returns the total number of points of the words on the board most
+	 * recently solved or counted by this solver.
+	 *
+	 * @return the total score of the last board
+	 */
+	public int getScore() {
+		return this.score;
+	}
+
+	/**
+	 * Searches for the words on the board with the specified face codes.
+	 *
+	 * @param codes
+	 *            the face codes of a square board of dice
+	 */
+	private void search(byte[] codes) {
+		this.codes = codes;
+		this.grid = Grid.forCells(codes.length);
+		this.stamp++;
+		this.wordCount = 0;
+		this.score = 0;
+		for (int i = 0; i < codes.length; i++) {
+			this.search(i, Trie.ROOT, 0, 0);
+		}
+		this.codes = null;
+		this.grid = null;
+	}
+
+	/**
+	 * Extends the current search path onto the specified die and continues the
+	 * search from there.
+	 *
+	 * @param idx
+	 *            the index of the die to move onto
+	 * @param node
+	 *            the trie node spelled by the path so far
+	 * @param visited
+	 *            a bit mask of the dice already on the path
+	 * @param length
+	 *            the number of letters on the path so far
+	 */
+	private void search(int idx, int node, long visited, int length) {
+		int code = this.codes[idx];
+		if (code == Board.QU) {
+			node = this.trie.child(node, 'q' - 'a');
+			if (node == Trie.NONE) {
+				return;
+			}
+			this.path[length] = 'q';
+			length++;
+			code = 'u' - 'a';
+		}
+		node = this.trie.child(node, code);
+		if (node == Trie.NONE) {
+			return;
+		}
+		this.path[length] = (char) ('a' + code);
+		length++;
+		if (length >= MINIMUM_WORD_LENGTH && this.trie.isWord(node) && this.seen[node] != this.stamp) {
+			this.seen[node] = this.stamp;
+			this.wordCount++;
+			int points = BoggleScorer.pointsFor(length);
+			this.score += points;
+			if (this.words != null) {
+				this.words.put(new String(this.path, 0, length), points);
+			}
+		}
+		if (!this.trie.hasChildren(node)) {
+			return;
+		}
+		visited |= 1L << idx;
+		for (long next = this.grid.neighbors(idx) & ~visited; next != 0; next &= next - 1) {
+			this.search(Long.numberOfTrailingZeros(next), node, visited, length);
+		}
+	}
+}
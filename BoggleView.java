@@ -9,18 +9,32 @@ import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.JTextArea;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 
 /**
  * The view for the Boggle app.
+ * 
+ * <p>
+ * In hint mode, only the dice that continue the current word towards a word
+ * on the board are enabled, and the number of words on the board that start
+ * with the current word is shown. The hints are answered from the solution of
+ * the board given to <code>setSolution</code>, which is searched in time
+ * proportional to the logarithm of the number of words on the board, so a
+ * click never waits for the board to be solved. The same solution lists the
+ * words the player has missed when the player asks for the answers; they are
+ * added to their list in a single batch.
  *
  */
 public class BoggleView extends JFrame implements ActionListener {
@@ -41,11 +55,44 @@ public class BoggleView extends JFrame implements ActionListener {
    */
   public static final String SUBMIT_COMMAND = "submit";
 
+  /**
+   * The string representing the command that turns hints on or off. The view
+   * listens for its own hints event.
+   */
+  public static final String HINTS_COMMAND = "hints";
+
+  /**
+   * The string representing the command that switches the word lists between
+   * alphabetical order and score order. The view listens for its own sort
+   * event.
+   */
+  public static final String SORT_COMMAND = "sort";
+
+  /**
+   * The string representing the command that lists every word on the board
+   * that the player has not found. The view listens for its own answers
+   * event.
+   */
+  public static final String ANSWERS_COMMAND = "answers";
+
+  /**
+   * The number of words visible in each word list.
+   */
+  private static final int VISIBLE_WORDS = 30;
+
+  private Grid grid;
   private List<JButton> diceButtons;
   private JTextField word;
   private Set<JButton> usedButtons;
-  private JTextArea correctWords;
-  private JTextArea incorrectWords;
+  private WordListModel correctWords;
+  private WordListModel incorrectWords;
+  private WordListModel missedWords;
+  private JCheckBox sortByScore;
+  private JLabel score;
+  private JCheckBox hints;
+  private JLabel completions;
+  private Solution solution;
+  private int lastDie = -1;
 
   /**
    * Create the Boggle user interface. Please see the lab for a detailed
@@ -55,7 +102,20 @@ public class BoggleView extends JFrame implements ActionListener {
    *          the controller that listens for submit and roll events
    */
   public BoggleView(BoggleController controller) {
+    this(controller, BoardSize.CLASSIC);
+  }
+
+  /**
+   * Create the Boggle user interface for a board of the specified size.
+   * 
+   * @param controller
+   *          the controller that listens for submit and roll events
+   * @param size
+   *          the size of the board
+   */
+  public BoggleView(BoggleController controller, BoardSize size) {
     super("Boggle");
+    this.grid = size.grid();
     this.diceButtons = new ArrayList<JButton>();
     this.usedButtons = new HashSet<JButton>();
 
@@ -63,9 +123,11 @@ public class BoggleView extends JFrame implements ActionListener {
     JPanel leftPanel = this.makeLeftPanel();
     JPanel rightPanel = this.makeRightPanel();
     JPanel middlePanel = this.makeMiddlePanel(controller);
+    JPanel answersPanel = this.makeAnswersPanel();
     contentPanel.add(leftPanel);
     contentPanel.add(middlePanel);
     contentPanel.add(rightPanel);
+    contentPanel.add(answersPanel);
     this.setContentPane(contentPanel);
     this.pack();
     this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -79,13 +141,17 @@ public class BoggleView extends JFrame implements ActionListener {
    * 
    */
   private JPanel makeDicePanel() {
-    Font font = new Font(Font.SANS_SERIF, Font.BOLD, 32);
+    // the dice panel is the same size for every board, so larger boards
+    // have smaller dice
+    int rows = this.grid.size();
+    int side = 400 / rows;
+    Font font = new Font(Font.SANS_SERIF, Font.BOLD, 128 / rows);
     JPanel p = new JPanel();
-    p.setLayout(new GridLayout(4, 4));
+    p.setLayout(new GridLayout(rows, rows));
     p.setMaximumSize(new Dimension(450, 450));
-    for (int i = 0; i < 16; i++) {
+    for (int i = 0; i < this.grid.cells(); i++) {
       JButton b = new JButton("" + i);
-      b.setPreferredSize(new Dimension(100, 100));
+      b.setPreferredSize(new Dimension(side, side));
       b.setMaximumSize(b.getSize());
       b.setFont(font);
       b.setBackground(Color.WHITE);
@@ -109,19 +175,8 @@ public class BoggleView extends JFrame implements ActionListener {
    */
   private List<JButton> findNeighbors(int idx) {
     List<JButton> neighbors = new ArrayList<JButton>();
-    final int row = idx / 4;
-    final int col = idx % 4;
-    final int minRow = Math.max(0, row - 1);
-    final int maxRow = Math.min(3, row + 1);
-    final int minCol = Math.max(0, col - 1);
-    final int maxCol = Math.min(3, col + 1);
-    for (int i = minRow; i <= maxRow; i++) {
-      for (int j = minCol; j <= maxCol; j++) {
-        int n = i * 4 + j;
-        if (n != idx) {
-          neighbors.add(this.diceButtons.get(n));
-        }
-      }
+    for (long n = this.grid.neighbors(idx); n != 0; n &= n - 1) {
+      neighbors.add(this.diceButtons.get(Long.numberOfTrailingZeros(n)));
     }
     return neighbors;
   }
@@ -136,21 +191,78 @@ public class BoggleView extends JFrame implements ActionListener {
   }
 
   /**
-   * Enable all of the buttons representing the dice.
+   * Enable all of the buttons representing the dice, or in hint mode only the
+   * buttons that start a word on the board.
    */
   private void enableAllDiceButtons() {
     for (JButton b : this.diceButtons) {
-      b.setEnabled(true);
+      b.setEnabled(this.isLive(b));
       b.setBackground(Color.WHITE);
     }
   }
+
+  /**
+   * Enables the unused buttons surrounding the die that was last selected by
+   * the user that could legally be chosen next, or in hint mode only those
+   * that continue the current word towards a word on the board.
+   */
+  private void enableNextDiceButtons() {
+    this.disableAllDiceButtons();
+    for (JButton n : this.findNeighbors(this.lastDie)) {
+      if (!this.usedButtons.contains(n) && this.isLive(n)) {
+        n.setEnabled(true);
+      }
+    }
+  }
+
+  /**
+   * Returns true if hints are turned on and the solution of the board is
+   * known.
+   * 
+   * @return true if hints should be shown
+   */
+  private boolean showHints() {
+    return this.solution != null && this.hints.isSelected();
+  }
+
+  /**
+   * Returns true if the specified button can be added to the current word:
+   * always when hints are not shown, and otherwise only if some word on the
+   * board starts with the current word followed by the button's face.
+   * 
+   * @param b
+   *          a button representing a die
+   * @return true if the button should be enabled
+   */
+  private boolean isLive(JButton b) {
+    return !this.showHints() || this.solution.hasWordStartingWith(this.word.getText() + b.getText());
+  }
+
+  /**
+   * Updates the dice buttons and the number of completions after the current
+   * word, the board, its solution or the hint mode has changed.
+   */
+  private void refreshHints() {
+    if (this.lastDie < 0) {
+      this.enableAllDiceButtons();
+    } else {
+      this.enableNextDiceButtons();
+    }
+    if (this.showHints()) {
+      this.completions.setText("Completions: " + this.solution.countWordsStartingWith(this.word.getText()));
+    } else {
+      this.completions.setText("");
+    }
+  }
   
   /**
    * Responds to events from the view. This method responds to an
    * event where the action command is either
    * <code>BoggleView.CLEAR_COMMAND</code>,
-   * <code>BoggleView.ROLL_COMMAND</code>, or
-   * <code>BoggleView.SUBMIT_COMMAND</code>.
+   * <code>BoggleView.HINTS_COMMAND</code>,
+   * <code>BoggleView.SORT_COMMAND</code>,
+   * <code>BoggleView.ANSWERS_COMMAND</code>,
+   * <code>BoggleView.ROLL_COMMAND</code>, or the index of a die.
    * 
    * @param event an event emitted by the view
    *
@@ -161,9 +273,20 @@ public class BoggleView extends JFrame implements ActionListener {
     String command = event.getActionCommand();
     if (command.equals(CLEAR_COMMAND)) {
       this.clearCurrentWord();
+    } else if (command.equals(HINTS_COMMAND)) {
+      this.refreshHints();
+    } else if (command.equals(SORT_COMMAND)) {
+      WordListModel.Order order = this.sortByScore.isSelected() ? WordListModel.Order.SCORE
+          : WordListModel.Order.ALPHABETICAL;
+      this.correctWords.setOrder(order);
+      this.incorrectWords.setOrder(order);
+      this.missedWords.setOrder(order);
+    } else if (command.equals(ANSWERS_COMMAND)) {
+      this.showMissedWords();
     } else if (command.equals(ROLL_COMMAND)) {
       this.clearCorrectWords();
       this.clearIncorrectWords();
+      this.missedWords.clear();
       this.clearCurrentWord();
     } else {
       try {
@@ -172,13 +295,8 @@ public class BoggleView extends JFrame implements ActionListener {
         b.setBackground(Color.BLUE);
         this.word.setText(this.word.getText() + b.getText());
         this.usedButtons.add(b);
-        this.disableAllDiceButtons();
-        List<JButton> neighbors = findNeighbors(d);
-        for (JButton n : neighbors) {
-          if (!this.usedButtons.contains(n)) {
-            n.setEnabled(true);
-          }
-        }
+        this.lastDie = d;
+        this.refreshHints();
       } catch (NumberFormatException ex) {
 
       }
@@ -204,11 +322,9 @@ public class BoggleView extends JFrame implements ActionListener {
     JLabel label = new JLabel("Correct Words");
     p.add(label);
     
-    // create the list of correct words, remove the ability for the user to
-    // edit the list, and add it to the panel
-    this.correctWords = new JTextArea(30, 16);
-    this.correctWords.setEditable(false);
-    p.add(this.correctWords);
+    // create the list of correct words and add it to the panel
+    this.correctWords = new WordListModel();
+    p.add(makeWordList(this.correctWords));
     
     return p;
   }
@@ -225,12 +341,62 @@ public class BoggleView extends JFrame implements ActionListener {
     p.setLayout(new BoxLayout(p, BoxLayout.Y_AXIS));
     JLabel label = new JLabel("Incorrect Words");
     p.add(label);
-    this.incorrectWords = new JTextArea(30, 16);
-    this.incorrectWords.setEditable(false);
-    p.add(this.incorrectWords);
+    this.incorrectWords = new WordListModel();
+    p.add(makeWordList(this.incorrectWords));
     return p;
   }
 
+  /**
+   * Creates the panel that lists the words the player has missed once the
+   * answers have been asked for.
+   * 
+   * @return the <code>JPanel</code> with the list of missed words
+   */
+  private JPanel makeAnswersPanel() {
+    JPanel p = new JPanel();
+    p.setLayout(new BoxLayout(p, BoxLayout.Y_AXIS));
+    JLabel label = new JLabel("Missed Words");
+    p.add(label);
+    this.missedWords = new WordListModel();
+    p.add(makeWordList(this.missedWords));
+    return p;
+  }
+
+  /**
+   * Adds every word of the solution of the board that is not in the list of
+   * correct words to the list of missed words, in a single batch. Does
+   * nothing if the solution of the board is not known yet.
+   */
+  private void showMissedWords() {
+    if (this.solution == null) {
+      return;
+    }
+    List<String> missed = new ArrayList<String>();
+    for (String w : this.solution.getWords().keySet()) {
+      if (!this.correctWords.contains(w)) {
+        missed.add(w.toUpperCase(Locale.ROOT));
+      }
+    }
+    this.missedWords.addAll(missed);
+  }
+
+  /**
+   * Creates a scrolling list that shows the words of the specified model.
+   * Every row of the list has the same size, so the list only lays out and
+   * paints the rows that are visible, however many words it holds.
+   * 
+   * @param model
+   *          the words to show
+   * @return a scroll pane holding the list
+   */
+  private static JScrollPane makeWordList(WordListModel model) {
+    JList<String> list = new JList<String>(model);
+    list.setPrototypeCellValue("MMMMMMMMMMMMMMMM");
+    list.setVisibleRowCount(VISIBLE_WORDS);
+    list.setFocusable(false);
+    return new JScrollPane(list);
+  }
+
   /**
    * Creates the middle panel. Please see the lab for a detailed description of
    * the panel's contents.
@@ -249,8 +415,9 @@ public class BoggleView extends JFrame implements ActionListener {
 
 
   /**
-   * Creates the panel that contains the clear, submit, and re-roll buttons, and
-   * the text field for the word.
+   * Creates the panel that contains the clear, submit, and re-roll buttons, the
+   * text field for the word, the player's score, the hint controls, the
+   * answers button, and the order of the word lists.
    * 
    * @return the <code>JPanel</code> that contains the controls below the dice
    * 
@@ -278,6 +445,27 @@ public class BoggleView extends JFrame implements ActionListener {
     roll.addActionListener(this);
     p.add(roll);
 
+    this.score = new JLabel("Score: 0");
+    p.add(this.score);
+
+    this.hints = new JCheckBox("Hints");
+    this.hints.setActionCommand(HINTS_COMMAND);
+    this.hints.addActionListener(this);
+    p.add(this.hints);
+
+    this.completions = new JLabel("");
+    p.add(this.completions);
+
+    JButton answers = new JButton("Answers");
+    answers.setActionCommand(ANSWERS_COMMAND);
+    answers.addActionListener(this);
+    p.add(answers);
+
+    this.sortByScore = new JCheckBox("Sort by score");
+    this.sortByScore.setActionCommand(SORT_COMMAND);
+    this.sortByScore.addActionListener(this);
+    p.add(this.sortByScore);
+
     return p;
   }
 
@@ -291,20 +479,87 @@ public class BoggleView extends JFrame implements ActionListener {
     return this.word.getText();
   }
 
+  /**
+   * Returns the current string that is in the word text field and clears
+   * the current word, so that the user can start forming the next word while
+   * the returned word is being checked.
+   * 
+   * @return the current string that was in the word text field
+   */
+  public String takeWord() {
+    String w = this.word.getText();
+    this.clearCurrentWord();
+    return w;
+  }
+
   /**
    * Sets the text on the buttons representing the dice.
    * 
-   * @pre. <code>dice.size() == 16</code>
+   * @pre. <code>dice.size()</code> is the number of dice on the board
    * 
    * @param dice
-   *          a list of 16 Boggle dice
+   *          a list of Boggle dice
    */
   public void setDice(List<Die> dice) {
-    for (int i = 0; i < 16; i++) {
+    for (int i = 0; i < this.diceButtons.size(); i++) {
       Die d = dice.get(i);
       JButton b = this.diceButtons.get(i);
       b.setText(d.getValue());
     }
+    this.setSolution(null);
+  }
+
+  /**
+   * Sets the text on the buttons representing the dice from a snapshot of the
+   * board.
+   * 
+   * @pre. <code>board.size()</code> is the number of dice on the board
+   * 
+   * @param board
+   *          a snapshot of the Boggle dice
+   */
+  public void setBoard(Board board) {
+    for (int i = 0; i < this.diceButtons.size(); i++) {
+      this.diceButtons.get(i).setText(board.face(i));
+    }
+    this.setSolution(null);
+  }
+
+  /**
+   * Sets the solution of the board shown by the view, which is used to show
+   * hints. The hints are turned off until the solution of a new board is set.
+   * 
+   * @pre. <code>solution</code> is the solution of the board shown by the
+   *       view, or <code>null</code>
+   * 
+   * @param solution
+   *          the solution of the board, or <code>null</code> if it is not
+   *          known
+   */
+  public void setSolution(Solution solution) {
+    this.solution = solution;
+    this.refreshHints();
+  }
+
+  /**
+   * Shows the specified score as the player's current score.
+   * 
+   * @param points
+   *          the player's current score
+   */
+  public void setScore(int points) {
+    this.score.setText("Score: " + points);
+  }
+
+  /**
+   * Tells the player that something went wrong, in a dialog that stays open
+   * until the player closes it.
+   * 
+   * @param message
+   *          a description of what went wrong
+   */
+  public void showError(String message) {
+    JOptionPane.showMessageDialog(this, message, "Boggle", JOptionPane.ERROR_MESSAGE);
   }
 
   /**
@@ -319,14 +574,30 @@ public class BoggleView extends JFrame implements ActionListener {
    *          legal Boggle word, <code>false</code> otherwise
    */
   public void setWordIsValid(boolean isValid) {
+    this.setWordIsValid(this.getWord(), isValid);
+    this.clearCurrentWord();
+  }
+
+  /**
+   * Adds the specified word to the list of correct words if
+   * <code>isValid == true</code>, and to the list of incorrect words
+   * otherwise. Unlike <code>setWordIsValid(boolean)</code>, the current word
+   * is not changed, so this method can report on a word that was taken with
+   * <code>takeWord</code> some time ago. A word that is already in the list
+   * is not added again.
+   * 
+   * @param word
+   *          a submitted word
+   * @param isValid
+   *          <code>true</code> if the word has been determined to be a legal
+   *          Boggle word, <code>false</code> otherwise
+   */
+  public void setWordIsValid(String word, boolean isValid) {
     if (isValid) {
-      this.correctWords.append(this.getWord());
-      this.correctWords.append("\n");
+      this.correctWords.add(word);
     } else {
-      this.incorrectWords.append(this.getWord());
-      this.incorrectWords.append("\n");
+      this.incorrectWords.add(word);
     }
-    this.clearCurrentWord();
   }
 
   /**
@@ -335,23 +606,24 @@ public class BoggleView extends JFrame implements ActionListener {
    * the set this.usedButtons
    */
   private void clearCurrentWord() {
-    this.enableAllDiceButtons();
     this.word.setText("");
     this.usedButtons.clear();
+    this.lastDie = -1;
+    this.refreshHints();
   }
 
   /**
    * Clears the list of correct words.
    */
   private void clearCorrectWords() {
-    this.correctWords.setText("");
+    this.correctWords.clear();
   }
 
   /**
    * Clears the list of incorrect words.
    */
   private void clearIncorrectWords() {
-    this.incorrectWords.setText("");
+    this.incorrectWords.clear();
   }
 
 
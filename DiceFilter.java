@@ -0,0 +1,215 @@
+package eecs2030.lab4;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A filter that accepts only the words that can be spelled with a set of
+ * dice, so that words that can never appear on a board can be left out of a
+ * dictionary when it is loaded. For example, no standard die shows a bare
+ * <code>Q</code>, so a word with a <code>q</code> that is not followed by a
+ * <code>u</code> can never be formed, and a word with four <code>z</code>s
+ * can never be formed with dice that have only one <code>Z</code> between
+ * them.
+ *
+ * <p>
+ * A word is accepted if its letters can be split into faces (a single letter,
+ * or <code>qu</code> for the <code>"QU"</code> face if any die has one) and
+ * every face can be shown by a different die. Whether the faces can be
+ * arranged into a path on the board is not considered. A filter counts the
+ * words it has pruned and kept, for example:
+ *
+ * <pre>
+ * DiceFilter filter = new DiceFilter(BoardSize.CLASSIC);
+ * Dictionary d = Dictionary.load(file, filter);
+ * System.out.println(filter.getPrunedCount() + " words pruned");
+ * </pre>
+ *
+ * <p>
+ * Words containing characters other than letters are rejected without being
+ * counted, because they are never added to a dictionary.
+ *
+ * <p>
+ * Implementation Details: The dice that can show each face are stored as a
+ * bit mask, one bit per die. A word is first rejected if it has more faces
+ * than there are dice, or needs more copies of a face than there are dice
+ * showing it. Otherwise the faces are matched to distinct dice by finding
+ * augmenting paths in the bipartite graph between faces and dice, which
+ * handles dice that share letters exactly. The arrays used to match a word
+ * are allocated once and reused for every word, so a filter must not be used
+ * by more than one thread at a time; its counts can be read from any thread.
+ */
+public final class DiceFilter implements Predicate<String> {
+
+	/**
+	 * The dice that have each face, indexed by face code.
+	 */
+	private final long[] dice = new long[Board.QU + 1];
+
+	private final int numberOfDice;
+
+	private final LongAdder pruned = new LongAdder();
+
+	private final LongAdder kept = new LongAdder();
+
+	/**
+	 * The face codes of the word being tested; a word with more faces than
+	 * there are dice is rejected before its extra faces are stored.
+	 */
+	private final byte[] faces;
+
+	/**
+	 * The number of times each face is needed by the word being tested.
+	 */
+	private final int[] needed = new int[Board.QU + 1];
+
+	/**
+	 * The index of the face assigned to each die, or -1.
+	 */
+	private final int[] owner;
+
+	/**
+	 * The dice already tried while assigning the current face.
+	 */
+	private long tried;
+
+	/**
+	 * Initializes a filter for the standard dice of the specified board size.
+	 *
+	 * @param size
+	 *            a board size
+	 */
+	public DiceFilter(BoardSize size) {
+		this(size.letters());
+	}
+
+	/**
+	 * Initializes a filter for the specified dice.
+	 *
+	 * @param letters
+	 *            the face strings of the dice, one row per die
+	 * @throws IllegalArgumentException
+	 *             if there are more than <code>Grid.MAXIMUM_CELLS</code> dice,
+	 *             or a face is not a single letter or <code>"QU"</code>
+	 */
+	public DiceFilter(String[][] letters) {
+		if (letters.length > Grid.MAXIMUM_CELLS) {
+			throw new IllegalArgumentException("too many dice: " + letters.length);
+		}
+		this.numberOfDice = letters.length;
+		this.faces = new byte[letters.length];
+		this.owner = new int[letters.length];
+		for (int i = 0; i < letters.length; i++) {
+			for (String face : letters[i]) {
+				this.dice[Board.encode(face)] |= 1L << i;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the specified word can be spelled with the dice of this
+	 * filter, and false otherwise.
+	 *
+	 * @param word
+	 *            a word
+	 * @return true if the word can be spelled with the dice
+	 */
+	@Override
+	public boolean test(String word) {
+		int n = word.length();
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			int letter = Trie.letter(word.charAt(i));
+			if (letter < 0) {
+				return false;
+			}
+			byte face = (byte) letter;
+			if (letter == 'q' - 'a' && this.dice[Board.QU] != 0 && i + 1 < n
+					&& Trie.letter(word.charAt(i + 1)) == 'u' - 'a') {
+				face = Board.QU;
+				i++;
+			}
+			if (count < this.faces.length) {
+				this.faces[count] = face;
+			}
+			count++;
+		}
+		if (this.canSpell(count)) {
+			this.kept.increment();
+			return true;
+		}
+		this.pruned.increment();
+		return false;
+	}
+
+	/**
+	 * Returns true if the first <code>count</code> faces in
+	 * <code>faces</code> can each be shown by a different die.
+	 *
+	 * @param count
+	 *            the number of faces of the word
+	 * @return true if the faces can be shown by distinct dice
+	 */
+	private boolean canSpell(int count) {
+		if (count > this.numberOfDice) {
+			return false;
+		}
+		Arrays.fill(this.needed, 0);
+		for (int i = 0; i < count; i++) {
+			if (++this.needed[this.faces[i]] > Long.bitCount(this.dice[this.faces[i]])) {
+				return false;
+			}
+		}
+		Arrays.fill(this.owner, -1);
+		for (int i = 0; i < count; i++) {
+			this.tried = 0;
+			if (!this.assign(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tries to assign a die to the specified face, reassigning the dice of
+	 * earlier faces if needed.
+	 *
+	 * @param face
+	 *            the index of the face to assign
+	 * @return true if a die was assigned to the face
+	 */
+	private boolean assign(int face) {
+		for (long m = this.dice[this.faces[face]] & ~this.tried; m != 0; m &= m - 1) {
+			int d = Long.numberOfTrailingZeros(m);
+			if ((this.tried & (1L << d)) != 0) {
+				continue;
+			}
+			this.tried |= 1L << d;
+			if (this.owner[d] < 0 || this.assign(this.owner[d])) {
+				this.owner[d] = face;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of words this filter has rejected because they
+	 * cannot be spelled with its dice.
+	 *
+	 * @return the number of words pruned
+	 */
+	public long getPrunedCount() {
+		return this.pruned.sum();
+	}
+
+	/**
+	 * Returns the number of words this filter has accepted.
+	 *
+	 * @return the number of words kept
+	 */
+	public long getKeptCount() {
+		return this.kept.sum();
+	}
+}
@@ -1,21 +1,60 @@
 package eecs2030.lab4;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
 import java.util.Scanner;
 import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An implementation of an immutable dictionary.
  *
+ * <p>
+ * A dictionary only holds words made up of the lower case letters
+ * <code>a</code> through <code>z</code>, the only words that can be formed on
+ * a Boggle board. A word list is expected to hold such words, one per line,
+ * as dictionary.txt does; any other word read from a word list, for example
+ * one with an upper case letter, an apostrophe or an accented letter, is
+ * skipped, and so is a repeated word. The size of a dictionary is therefore
+ * the number of distinct words it holds, which may be smaller than the number
+ * of words in the list it was read from.
+ *
+ * <p>
+ * Implementation Details: The words are stored in a trie, so looking up a word
+ * or a prefix takes time proportional to its length, and listing the words
+ * that start with a prefix takes time proportional to the length of the
+ * prefix plus the number of words listed.
+ *
+ * <p>
+ * A dictionary can also be loaded from a file produced by
+ * <code>DictionaryCompiler</code>. Such a file holds the trie itself and is
+ * memory-mapped rather than parsed, so loading it is nearly instant and the
+ * operating system shares its pages between every process that loads it.
+ *
+ * <p>
+ * Loading a dictionary, looking up words and listing the words that start
+ * with a prefix are recorded in <code>BoggleMetrics</code>.
+ *
  */
 public class Dictionary {
 
-	private SortedSet<String> words = new TreeSet<String>();
+	private final Trie words;
 
 	/**
-	 * Reads the dictionary file and stores the words from the file in the Set
-	 * this.dictionary. The words in this file are in all lower case.
+	 * Reads the dictionary file and stores the words from the file in the trie
+	 * this.words. The words in this file are in all lower case.
 	 * 
 	 * <p>
 	 * The dictionary file is named dictionary.txt and needs to be located in
@@ -25,35 +64,240 @@ public class Dictionary {
 	 *             if dictionary.txt cannot be found
 	 * 
 	 */
-	private final void readDictionary() {
+	private final Trie readDictionary() {
 		InputStream in = this.getClass().getResourceAsStream("dictionary.txt");
 		if (in == null) {
 			throw new RuntimeException("dictionary.txt is missing");
 		}
+		return readWords(in);
+	}
+
+	/**
+	 * Reads whitespace separated words from the specified stream and returns
+	 * a trie containing them. The stream is closed when all of the words have
+	 * been read.
+	 * 
+	 * @param in
+	 *            a stream of lower case words
+	 * @return a trie containing the words read from the stream
+	 */
+	static Trie readWords(InputStream in) {
+		return readWords(in, word -> true);
+	}
+
+	/**
+	 * Reads whitespace separated words from the specified stream and returns
+	 * a trie containing the words accepted by the specified filter. The stream
+	 * is closed when all of the words have been read.
+	 * 
+	 * @param in
+	 *            a stream of lower case words
+	 * @param filter
+	 *            accepts the words to keep
+	 * @return a trie containing the accepted words read from the stream
+	 */
+	static Trie readWords(InputStream in, Predicate<? super String> filter) {
+		Trie.Builder builder = new Trie.Builder();
 		Scanner dictionaryInput = new Scanner(in);
 		while (dictionaryInput.hasNext()) {
-			String word = dictionaryInput.next();
-			this.words.add(word.trim());
+			String word = dictionaryInput.next().trim();
+			if (filter.test(word)) {
+				builder.add(word);
+			}
 		}
 		dictionaryInput.close();
+		return builder.build();
 	}
 
 	/**
 	 * Initializes a dictionary by reading the default dictionary from a file.
 	 */
 	public Dictionary() {
-		readDictionary();
+		long start = System.nanoTime();
+		this.words = readDictionary();
+		BoggleMetrics.get().dictionaryLoaded(System.nanoTime() - start, this.words.wordCount());
+	}
+
+	/**
+	 * Initializes a dictionary holding the words of the specified trie.
+	 * 
+	 * @param words
+	 *            the words of the dictionary
+	 */
+	Dictionary(Trie words) {
+		this.words = words;
+	}
+
+	/**
+	 * Returns a dictionary holding the words of the specified trie, and
+	 * records that it was loaded in the time since <code>start</code>.
+	 * 
+	 * @param start
+	 *            the value of <code>System.nanoTime</code> when loading began
+	 * @param words
+	 *            the words of the dictionary
+	 * @return a dictionary holding the words of the trie
+	 */
+	private static Dictionary loaded(long start, Trie words) {
+		BoggleMetrics.get().dictionaryLoaded(System.nanoTime() - start, words.wordCount());
+		return new Dictionary(words);
+	}
 
+	/**
+	 * Returns a dictionary backed by a memory-mapped file produced by
+	 * <code>DictionaryCompiler</code>.
+	 * 
+	 * @param compiledFile
+	 *            a compiled dictionary file
+	 * @return the dictionary stored in the file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled dictionary
+	 */
+	public static Dictionary map(Path compiledFile) throws IOException {
+		long start = System.nanoTime();
+		return loaded(start, Trie.map(compiledFile));
+	}
+
+	/**
+	 * Returns a dictionary holding the words in the specified file. The file
+	 * may either be a compiled dictionary produced by
+	 * <code>DictionaryCompiler</code>, in which case it is memory-mapped, or a
+	 * word list in the same format as dictionary.txt, in which case it is
+	 * read.
+	 * 
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @return the dictionary stored in the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public static Dictionary load(Path file) throws IOException {
+		long start = System.nanoTime();
+		if (isCompiled(file)) {
+			return loaded(start, Trie.map(file));
+		}
+		return loaded(start, readWords(Files.newInputStream(file)));
+	}
+
+	/**
+	 * Returns true if the specified file starts with the magic number of a
+	 * compiled dictionary.
+	 * 
+	 * @param file
+	 *            a file
+	 * @return true if the file is a compiled dictionary
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	private static boolean isCompiled(Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			channel.read(header, 0);
+		}
+		return !header.hasRemaining() && header.getInt(0) == Trie.MAGIC;
+	}
+
+	/**
+	 * Returns a dictionary holding the whitespace separated words read from the
+	 * specified stream, in the same format as dictionary.txt. Words containing
+	 * characters other than <code>a</code> through <code>z</code> are skipped.
+	 * The stream is closed when all of the words have been read.
+	 * 
+	 * @param in
+	 *            a stream of words
+	 * @return a dictionary holding the words read from the stream
+	 */
+	public static Dictionary read(InputStream in) {
+		long start = System.nanoTime();
+		return loaded(start, readWords(in));
+	}
+
+	/**
+	 * Returns a dictionary holding the words read from the specified stream
+	 * that are accepted by the specified filter, for example a
+	 * <code>DiceFilter</code> that prunes words that cannot be spelled with a
+	 * set of dice. The stream is closed when all of the words have been read.
+	 * 
+	 * @param in
+	 *            a stream of words
+	 * @param filter
+	 *            accepts the words to keep
+	 * @return a dictionary holding the accepted words read from the stream
+	 */
+	public static Dictionary read(InputStream in, Predicate<? super String> filter) {
+		long start = System.nanoTime();
+		return loaded(start, readWords(in, filter));
+	}
+
+	/**
+	 * Returns a dictionary holding the words in the specified file that are
+	 * accepted by the specified filter. The file may be a compiled dictionary
+	 * or a word list, as for <code>load(Path)</code>; a compiled dictionary is
+	 * mapped and then copied without the rejected words.
+	 * 
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @param filter
+	 *            accepts the words to keep
+	 * @return a dictionary holding the accepted words stored in the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public static Dictionary load(Path file, Predicate<? super String> filter) throws IOException {
+		long start = System.nanoTime();
+		if (isCompiled(file)) {
+			return loaded(start, filterWords(Trie.map(file), filter));
+		}
+		return loaded(start, readWords(Files.newInputStream(file), filter));
 	}
 
 	/**
-	 * Returns the number of words in the dictionary.
+	 * Returns a new dictionary holding the words of this dictionary that are
+	 * accepted by the specified filter. A dictionary with fewer words has a
+	 * smaller trie, so it uses less memory and boards are solved faster.
+	 * 
+	 * @param filter
+	 *            accepts the words to keep
+	 * @return a new dictionary holding the accepted words
+	 */
+	public Dictionary filter(Predicate<? super String> filter) {
+		long start = System.nanoTime();
+		return loaded(start, filterWords(this.words, filter));
+	}
+
+	/**
+	 * Returns a new trie holding the words of the specified trie that are
+	 * accepted by the specified filter.
+	 * 
+	 * @param words
+	 *            a trie
+	 * @param filter
+	 *            accepts the words to keep
+	 * @return a new trie holding the accepted words
+	 */
+	private static Trie filterWords(Trie words, Predicate<? super String> filter) {
+		Trie.Builder builder = new Trie.Builder();
+		Iterator<String> it = words.iterator("", null);
+		while (it.hasNext()) {
+			String word = it.next();
+			if (filter.test(word)) {
+				builder.add(word);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the number of words in the dictionary. Words of the word list
+	 * that were skipped because they contain characters other than
+	 * <code>a</code> through <code>z</code>, and repeated words, are not
+	 * counted.
 	 * 
 	 * @return the number of words in the dictionary
 	 */
 	public int size() {
 
-		return this.words.size();
+		return this.words.wordCount();
 	}
 
 	/**
@@ -70,12 +314,82 @@ public class Dictionary {
 	 */
 	public boolean lookUp(String word) {
 
-		if (this.words.contains(word.toLowerCase())) {
-			return true;
-		} else {
-			return false;
-		}
+		return this.lookUp((CharSequence) word);
+
+	}
+
+	/**
+	 * Returns true if the specified character sequence is a word in the
+	 * dictionary, and false otherwise. The case of the characters is not
+	 * important. The characters are folded to lower case one at a time as the
+	 * dictionary is searched, so this method allocates nothing; callers can
+	 * look up words held in a reused <code>StringBuilder</code> or
+	 * <code>CharBuffer</code>.
+	 * 
+	 * @param word
+	 *            a word to look up in the dictionary
+	 * @return true if the specified word is in the dictionary, and false
+	 *         otherwise
+	 */
+	public boolean lookUp(CharSequence word) {
+		BoggleMetrics.Timer timer = BoggleMetrics.get().lookUps;
+		long start = timer.start();
+		int node = this.words.find(word, 0, word.length());
+		boolean found = node != Trie.NONE && this.words.isWord(node);
+		timer.stop(start);
+		return found;
+	}
+
+	/**
+	 * Returns true if the word made up of <code>length</code> characters of
+	 * the specified array starting at <code>offset</code> is in the
+	 * dictionary, and false otherwise. The case of the characters is not
+	 * important, and this method allocates nothing.
+	 * 
+	 * @param chars
+	 *            an array holding a word to look up in the dictionary
+	 * @param offset
+	 *            the index of the first character of the word
+	 * @param length
+	 *            the number of characters in the word
+	 * @return true if the specified word is in the dictionary, and false
+	 *         otherwise
+	 */
+	public boolean lookUp(char[] chars, int offset, int length) {
+		BoggleMetrics.Timer timer = BoggleMetrics.get().lookUps;
+		long start = timer.start();
+		int node = this.words.find(chars, offset, length);
+		boolean found = node != Trie.NONE && this.words.isWord(node);
+		timer.stop(start);
+		return found;
+	}
+
+	/**
+	 * Returns true if at least one word in the dictionary begins with the
+	 * specified prefix, and false otherwise. Every word is a prefix of itself,
+	 * and the empty string is a prefix of every word. The case of the prefix is
+	 * not important, and this method allocates nothing.
+	 *
+	 * <p>
+	 * Solvers can use this method to abandon a path through the board as soon
+	 * as the letters along the path stop being the start of a word.
+	 *
+	 * @param prefix
+	 *            a character sequence to test
+	 * @return true if some word in the dictionary begins with the specified
+	 *         prefix, and false otherwise
+	 */
+	public boolean isPrefix(CharSequence prefix) {
+		return this.words.find(prefix, 0, prefix.length()) != Trie.NONE;
+	}
 
+	/**
+	 * Returns the trie that stores the words of this dictionary.
+	 *
+	 * @return the trie that stores the words of this dictionary
+	 */
+	Trie trie() {
+		return this.words;
 	}
 
 	/**
@@ -90,16 +404,66 @@ public class Dictionary {
 	 *         with the specified string
 	 */
 	public SortedSet<String> wordsStartingWith(String prefix) {
+		BoggleMetrics.Timer timer = BoggleMetrics.get().prefixQueries;
+		long start = timer.start();
 		SortedSet<String> set = new TreeSet<String>();
-
-		for (String str : this.words) {
-			if (str.startsWith(prefix.toLowerCase())) {
-				set.add(str);
-			}
+		int node = this.words.find(prefix, 0, prefix.length());
+		if (node != Trie.NONE) {
+			this.words.collect(node, prefix, set);
 		}
+		timer.stop(start);
 
 		return set;
 
 	}
 
+	/**
+	 * Returns a lazy, sequential stream of the words in the dictionary that
+	 * begin with the specified prefix, in sorted order. The case of the prefix
+	 * is not important. Unlike <code>wordsStartingWith</code>, the words are
+	 * found as the stream is consumed, so a caller that only wants a few words,
+	 * for example with <code>limit</code>, only pays for the words it takes.
+	 * 
+	 * @param prefix
+	 *            a string that each word in the returned stream must start
+	 *            with
+	 * @return a sorted stream of the words that begin with the specified
+	 *         string
+	 */
+	public Stream<String> streamWordsStartingWith(String prefix) {
+		return this.streamWordsStartingWith(prefix, null);
+	}
+
+	/**
+	 * Returns a lazy, sequential stream of the words in the dictionary that
+	 * begin with the specified prefix and come after the specified cursor, in
+	 * sorted order. The cursor is usually the last word returned by an earlier
+	 * stream, so a caller can page through the words, for example:
+	 * 
+	 * <pre>
+	 * List&lt;String&gt; page = d.streamWordsStartingWith("st", last).limit(10).collect(Collectors.toList());
+	 * </pre>
+	 * 
+	 * <p>
+	 * Resuming from a cursor does not visit the words before the cursor. The
+	 * case of the prefix and the cursor is not important.
+	 * 
+	 * @param prefix
+	 *            a string that each word in the returned stream must start
+	 *            with
+	 * @param after
+	 *            only words that come after this word are returned, or
+	 *            <code>null</code> to start with the first word
+	 * @return a sorted stream of the words that begin with the specified
+	 *         string and come after the cursor
+	 * @throws IllegalArgumentException
+	 *             if the cursor starts with the prefix but contains a
+	 *             character other than a letter
+	 */
+	public Stream<String> streamWordsStartingWith(String prefix, String after) {
+		Spliterator<String> words = Spliterators.spliteratorUnknownSize(this.words.iterator(prefix, after),
+				Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+		return StreamSupport.stream(words, false);
+	}
+
 }
@@ -0,0 +1,89 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Predicate;
+
+/**
+ * A command-line tool that compiles a word list into a binary dictionary file
+ * that can be loaded with <code>Dictionary.map</code>.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java eecs2030.lab4.DictionaryCompiler dictionary.txt dictionary.bin [rows]
+ * </pre>
+ *
+ * <p>
+ * The word list uses the same format as <code>dictionary.txt</code>: lower
+ * case words separated by whitespace. If the number of rows of a standard
+ * board is given, words that cannot be spelled with the dice of that board
+ * are left out, and the number of words left out is printed.
+ */
+public class DictionaryCompiler {
+
+	/**
+	 * Compiles the word list in the specified text file into the specified
+	 * binary dictionary file, replacing the binary file if it already exists.
+	 * The old file is replaced atomically, so a server that has it mapped is
+	 * not disturbed.
+	 *
+	 * @param wordList
+	 *            a text file of lower case words
+	 * @param compiledFile
+	 *            the binary dictionary file to write
+	 * @return the number of words written to the binary dictionary file
+	 * @throws IOException
+	 *             if the word list cannot be read or the binary file cannot be
+	 *             written
+	 */
+	public static int compile(Path wordList, Path compiledFile) throws IOException {
+		return compile(wordList, compiledFile, word -> true);
+	}
+
+	/**
+	 * Compiles the words accepted by the specified filter in the specified
+	 * text file into the specified binary dictionary file, replacing the
+	 * binary file if it already exists.
+	 *
+	 * @param wordList
+	 *            a text file of lower case words
+	 * @param compiledFile
+	 *            the binary dictionary file to write
+	 * @param filter
+	 *            accepts the words to compile
+	 * @return the number of words written to the binary dictionary file
+	 * @throws IOException
+	 *             if the word list cannot be read or the binary file cannot be
+	 *             written
+	 */
+	public static int compile(Path wordList, Path compiledFile, Predicate<? super String> filter)
+			throws IOException {
+		Trie words;
+		try (InputStream in = Files.newInputStream(wordList)) {
+			words = Dictionary.readWords(in, filter);
+		}
+		words.write(compiledFile);
+		return words.wordCount();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2 && args.length != 3) {
+			System.err.println("usage: DictionaryCompiler <word list> <compiled file> [rows]");
+			System.exit(1);
+		}
+		DiceFilter filter = args.length == 3 ? new DiceFilter(BoardSize.forRows(Integer.parseInt(args[2]))) : null;
+		long start = System.nanoTime();
+		int count = filter == null ? compile(Paths.get(args[0]), Paths.get(args[1]))
+				: compile(Paths.get(args[0]), Paths.get(args[1]), filter);
+		long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println("compiled " + count + " words into " + args[1] + " in " + millis + " ms");
+		if (filter != null) {
+			System.out.println("pruned " + filter.getPrunedCount() + " words that the dice cannot spell");
+		}
+	}
+}
@@ -0,0 +1,351 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A holder of the current dictionary that can switch to a different word list
+ * while games are being played, for example to change the word list of a
+ * tournament or language, or to pick up an updated word list without
+ * restarting.
+ *
+ * <p>
+ * A loader is a <code>Supplier&lt;Dictionary&gt;</code>, so it can be given to
+ * a <code>Boggle</code> game, a <code>GameRoom</code> or a
+ * <code>BoggleServer</code> in place of a fixed dictionary. Every call to
+ * <code>get</code> returns the current dictionary. A loader created for a
+ * board size prunes the words that cannot be spelled with the dice of that
+ * size from every dictionary it reads, as
+ * <code>DictionaryRegistry.get(Path, BoardSize)</code> does.
+ *
+ * <p>
+ * Implementation Details: New dictionaries are read on a single background
+ * thread owned by the loader. When a new dictionary has been read completely
+ * it replaces the current one with a single volatile write, so a lookup always
+ * sees either the old dictionary or the new one, never a partly built one, and
+ * <code>get</code> never waits for a reload. Dictionaries are immutable, so a
+ * lookup that started on the old dictionary finishes on it safely. If a reload
+ * fails, the current dictionary is kept. If several reloads are in progress,
+ * the dictionary of the most recently requested reload wins, whatever order
+ * they finish in. Listeners are told about every new dictionary on the
+ * background thread, in the order the dictionaries become current, so that
+ * anything built from the old dictionary, such as the boards of a
+ * <code>BoardPool</code>, can be rebuilt.
+ *
+ * <p>
+ * A compiled dictionary is memory-mapped, not copied, so the file of a
+ * dictionary that may still be in use must be replaced, never rewritten in
+ * place: write the new dictionary to another file in the same directory and
+ * rename it over the old one, as <code>DictionaryCompiler</code> does. A
+ * mapped file that is truncated or overwritten while lookups are running can
+ * make them read garbage or crash the JVM with <code>SIGBUS</code>. Word lists
+ * are read onto the heap and can be updated either way.
+ */
+public final class DictionaryLoader implements Supplier<Dictionary>, AutoCloseable {
+
+	private static final Logger LOGGER = Logger.getLogger(DictionaryLoader.class.getName());
+
+	/**
+	 * The modification time and size of a watched file.
+	 */
+	private static final class FileState {
+
+		private final FileTime modified;
+		private final long size;
+
+		private FileState(Path file) throws IOException {
+			this.modified = Files.getLastModifiedTime(file);
+			this.size = Files.size(file);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof FileState)) {
+				return false;
+			}
+			FileState other = (FileState) obj;
+			return this.modified.equals(other.modified) && this.size == other.size;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.modified.hashCode() * 31 + Long.hashCode(this.size);
+		}
+	}
+
+	/**
+	 * The thread on which dictionaries are read and files are watched.
+	 */
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * The current dictionary.
+	 */
+	private volatile Dictionary dictionary;
+
+	/**
+	 * Prunes the words read from files and streams, or null; only used on the
+	 * background thread.
+	 */
+	private final DiceFilter filter;
+
+	/**
+	 * The listeners told about every new dictionary.
+	 */
+	private final CopyOnWriteArrayList<Consumer<? super Dictionary>> listeners =
+			new CopyOnWriteArrayList<Consumer<? super Dictionary>>();
+
+	/**
+	 * The number of reloads requested so far.
+	 */
+	private long requested;
+
+	/**
+	 * The number of the reload whose dictionary is the current dictionary, or
+	 * 0 if no reload has completed.
+	 */
+	private long installed;
+
+	/**
+	 * Initializes a loader whose current dictionary is the specified
+	 * dictionary.
+	 *
+	 * @param dictionary
+	 *            the initial dictionary
+	 */
+	public DictionaryLoader(Dictionary dictionary) {
+		this(dictionary, (DiceFilter) null);
+	}
+
+	/**
+	 * Initializes a loader whose current dictionary is the specified
+	 * dictionary, and that prunes the words that cannot be spelled with the
+	 * dice of the specified board size from the dictionaries it reads. The
+	 * initial dictionary is used as it is.
+	 *
+	 * @param dictionary
+	 *            the initial dictionary
+	 * @param size
+	 *            the size of the boards the dictionaries are used for
+	 */
+	public DictionaryLoader(Dictionary dictionary, BoardSize size) {
+		this(dictionary, new DiceFilter(size));
+	}
+
+	private DictionaryLoader(Dictionary dictionary, DiceFilter filter) {
+		this.dictionary = dictionary;
+		this.filter = filter;
+		this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "dictionary-loader");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Returns the current dictionary. This method never blocks, even while a
+	 * reload is in progress.
+	 *
+	 * @return the current dictionary
+	 */
+	@Override
+	public Dictionary get() {
+		return this.dictionary;
+	}
+
+	/**
+	 * Adds a listener that is called with every dictionary that becomes the
+	 * current dictionary from now on. The listener is called on the background
+	 * thread, so it should not block for long; an exception thrown by the
+	 * listener is logged and does not stop the reload.
+	 *
+	 * @param listener
+	 *            receives every new current dictionary
+	 */
+	public void addListener(Consumer<? super Dictionary> listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Starts reading the specified file on the background thread and replaces
+	 * the current dictionary with it once it has been read. The file may be a
+	 * compiled dictionary or a word list, as for <code>Dictionary.load</code>.
+	 *
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @return a future that completes with the new dictionary once it is the
+	 *         current dictionary, or completes exceptionally with an
+	 *         <code>UncheckedIOException</code> if the file cannot be read
+	 */
+	public CompletableFuture<Dictionary> reload(Path file) {
+		return this.reload(() -> {
+			try {
+				return this.load(file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	/**
+	 * Reads the specified file, pruning it if this loader has a filter. Runs
+	 * on the background thread.
+	 *
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @return the dictionary stored in the file
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	private Dictionary load(Path file) throws IOException {
+		return this.filter == null ? Dictionary.load(file) : Dictionary.load(file, this.filter);
+	}
+
+	/**
+	 * Starts reading whitespace separated words from the specified stream on
+	 * the background thread and replaces the current dictionary with them once
+	 * they have all been read. The stream is closed when all of the words have
+	 * been read.
+	 *
+	 * @param in
+	 *            a stream of words
+	 * @return a future that completes with the new dictionary once it is the
+	 *         current dictionary
+	 */
+	public CompletableFuture<Dictionary> reload(InputStream in) {
+		return this.reload(() -> this.filter == null ? Dictionary.read(in) : Dictionary.read(in, this.filter));
+	}
+
+	/**
+	 * Starts building a dictionary on the background thread and replaces the
+	 * current dictionary with it once it has been built.
+	 *
+	 * @param source
+	 *            builds the new dictionary
+	 * @return a future that completes with the new dictionary once it is the
+	 *         current dictionary, or completes exceptionally if building it
+	 *         fails
+	 */
+	public CompletableFuture<Dictionary> reload(Supplier<Dictionary> source) {
+		long ticket = this.nextTicket();
+		return CompletableFuture.supplyAsync(() -> this.install(ticket, source.get()), this.executor);
+	}
+
+	/**
+	 * Makes the specified dictionary the current dictionary unless a more
+	 * recently requested reload has already been installed, and tells the
+	 * listeners if it does. Runs on the background thread.
+	 *
+	 * @param ticket
+	 *            the number of the reload that built the dictionary
+	 * @param d
+	 *            the new dictionary
+	 * @return the current dictionary
+	 */
+	private Dictionary install(long ticket, Dictionary d) {
+		synchronized (this) {
+			if (ticket <= this.installed) {
+				return this.dictionary;
+			}
+			this.installed = ticket;
+			this.dictionary = d;
+		}
+		for (Consumer<? super Dictionary> listener : this.listeners) {
+			try {
+				listener.accept(d);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "a dictionary listener failed", e);
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * Checks the modification time and size of the specified file every
+	 * <code>periodMillis</code> milliseconds and reloads the file whenever it
+	 * has changed. The file is not read until it changes for the first time,
+	 * and a changed file is only read once it has had the same modification
+	 * time and size for two checks in a row and still has them after it has
+	 * been read, so a file caught while it is being written is not loaded.
+	 * A failed reload is logged, the current dictionary is kept, and the file
+	 * is read again at the next check until it loads. A compiled dictionary
+	 * must be updated by replacing the file, not by rewriting it, because the
+	 * current dictionary may still be mapped from it.
+	 *
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @param periodMillis
+	 *            the number of milliseconds between checks
+	 * @return a future that can be cancelled to stop watching the file
+	 * @throws IOException
+	 *             if the modification time or size of the file cannot be read
+	 */
+	public ScheduledFuture<?> watch(Path file, long periodMillis) throws IOException {
+		// the state of the file when it was last loaded, the state seen at the
+		// previous check, and the state whose failure was last logged; only
+		// used on the background thread
+		FileState[] states = { new FileState(file), null, null };
+		return this.executor.scheduleWithFixedDelay(() -> {
+			FileState now;
+			try {
+				now = new FileState(file);
+			} catch (IOException e) {
+				// the file is being replaced; check again later
+				states[1] = null;
+				return;
+			}
+			FileState previous = states[1];
+			states[1] = now;
+			if (now.equals(states[0]) || !now.equals(previous)) {
+				// unchanged, or still changing
+				return;
+			}
+			try {
+				Dictionary d = this.load(file);
+				if (!now.equals(new FileState(file))) {
+					// the file changed while it was being read
+					return;
+				}
+				this.install(this.nextTicket(), d);
+				states[0] = now;
+			} catch (IOException | RuntimeException e) {
+				if (!now.equals(states[2])) {
+					states[2] = now;
+					LOGGER.log(Level.WARNING, "cannot reload " + file + "; keeping the current dictionary", e);
+				}
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the number of a newly requested reload.
+	 *
+	 * @return the number of the reload
+	 */
+	private synchronized long nextTicket() {
+		return ++this.requested;
+	}
+
+	/**
+	 * Stops the background thread. Reloads that have not started are
+	 * abandoned, and the current dictionary stays available.
+	 */
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+}
@@ -0,0 +1,141 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A registry of shared dictionaries. Because a <code>Dictionary</code> is
+ * immutable, one instance per word list can safely be shared by every Boggle
+ * game in the process, no matter how many games are running at once.
+ *
+ * <p>
+ * Dictionaries are loaded lazily, the first time they are requested, and each
+ * word list is loaded at most once even if several threads request it at the
+ * same time.
+ *
+ * <p>
+ * A dictionary requested for a board size holds only the words that can be
+ * spelled with the dice of that size, as accepted by a <code>DiceFilter</code>;
+ * the other words can never be found on the board, so leaving them out makes
+ * the dictionary smaller and boards faster to solve without changing which
+ * words are legal.
+ */
+public final class DictionaryRegistry {
+
+	/**
+	 * The dictionaries loaded from files, keyed by their normalized absolute
+	 * path.
+	 */
+	private static final ConcurrentMap<Path, Dictionary> DICTIONARIES = new ConcurrentHashMap<Path, Dictionary>();
+
+	/**
+	 * The default dictionary pruned for each board size.
+	 */
+	private static final ConcurrentMap<BoardSize, Dictionary> DEFAULTS = new ConcurrentHashMap<BoardSize, Dictionary>();
+
+	/**
+	 * The dictionaries loaded from files and pruned for each board size, keyed
+	 * by their normalized absolute path.
+	 */
+	private static final Map<BoardSize, ConcurrentMap<Path, Dictionary>> PRUNED = new EnumMap<BoardSize, ConcurrentMap<Path, Dictionary>>(
+			BoardSize.class);
+
+	static {
+		for (BoardSize size : BoardSize.values()) {
+			PRUNED.put(size, new ConcurrentHashMap<Path, Dictionary>());
+		}
+	}
+
+	/**
+	 * Holds the default dictionary; the class is initialized, and so the
+	 * dictionary read, the first time <code>getDefault</code> is called.
+	 */
+	private static final class DefaultHolder {
+		private static final Dictionary DICTIONARY = new Dictionary();
+	}
+
+	private DictionaryRegistry() {
+	}
+
+	/**
+	 * Returns the shared dictionary read from the default dictionary.txt
+	 * resource.
+	 *
+	 * @return the shared default dictionary
+	 * @throws RuntimeException
+	 *             if dictionary.txt cannot be found
+	 */
+	public static Dictionary getDefault() {
+		return DefaultHolder.DICTIONARY;
+	}
+
+	/**
+	 * Returns the shared dictionary holding the words of the default
+	 * dictionary that can be spelled with the dice of the specified board
+	 * size.
+	 *
+	 * @param size
+	 *            a board size
+	 * @return the shared default dictionary for the board size
+	 * @throws RuntimeException
+	 *             if dictionary.txt cannot be found
+	 */
+	public static Dictionary getDefault(BoardSize size) {
+		return DEFAULTS.computeIfAbsent(size, s -> getDefault().filter(new DiceFilter(s)));
+	}
+
+	/**
+	 * Returns the shared dictionary holding the words in the specified file,
+	 * loading it with <code>Dictionary.load</code> if it has not been loaded
+	 * yet.
+	 *
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @return the shared dictionary for the file
+	 * @throws UncheckedIOException
+	 *             if the file has not been loaded yet and cannot be read
+	 */
+	public static Dictionary get(Path file) {
+		Path key = file.toAbsolutePath().normalize();
+		return DICTIONARIES.computeIfAbsent(key, DictionaryRegistry::load);
+	}
+
+	/**
+	 * Returns the shared dictionary holding the words in the specified file
+	 * that can be spelled with the dice of the specified board size, loading
+	 * it with <code>Dictionary.load</code> if it has not been loaded yet.
+	 *
+	 * @param file
+	 *            a compiled dictionary or a word list
+	 * @param size
+	 *            a board size
+	 * @return the shared dictionary for the file and the board size
+	 * @throws UncheckedIOException
+	 *             if the file has not been loaded yet and cannot be read
+	 */
+	public static Dictionary get(Path file, BoardSize size) {
+		Path key = file.toAbsolutePath().normalize();
+		return PRUNED.get(size).computeIfAbsent(key, f -> load(f, size));
+	}
+
+	private static Dictionary load(Path file) {
+		try {
+			return Dictionary.load(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Dictionary load(Path file, BoardSize size) {
+		try {
+			return Dictionary.load(file, new DiceFilter(size));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -1,61 +1,41 @@
 package eecs2030.lab4;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * A class that represents an n-sided die where the sides are decorated with a
  * string. Every Die has at least one face.
  * 
  * <p>
- * Implementation Details: Every n-sided Die object has-a sorted map that stores
- * the mapping between the face number 1, 2, ..., n to the corresponding face
- * string. For example, a 4-sided die whose face strings are "ONE", "TWO",
- * "THREE" and "FOUR" would have the following map:
- * 
- * <table summary="Map of face numbers to face strings">
- * <tr>
- * <th>Key&nbsp;&nbsp;&nbsp;</th>
- * <th>Value</th>
- * </tr>
- * <tr>
- * <td>1</td>
- * <td>"ONE"</td>
- * </tr>
- * <tr>
- * <td>2</td>
- * <td>"TWO"</td>
- * </tr>
- * <tr>
- * <td>3</td>
- * <td>"THREE"</td>
- * </tr>
- * <tr>
- * <td>4</td>
- * <td>"FOUR"</td>
- * </tr>
- * </table>
+ * Implementation Details: Every n-sided Die object has-a array that stores the
+ * face strings in order, so that face number <code>i</code> (between 1 and
+ * n) is stored at index <code>i - 1</code>. For example, a 4-sided die whose
+ * face strings are "ONE", "TWO", "THREE" and "FOUR" would have the array
+ * <code>{ "ONE", "TWO", "THREE", "FOUR" }</code>. The array is never modified
+ * after the die is constructed, so copies of a die share it.
  * 
  * <p>
- * The die also stores it current value as an integer between 1 and n. To return
- * the current value of the die, the die uses its current value as a key and
- * returns the corresponding value in the map (the current face string).
+ * The die also stores the array index of its current face. To return the
+ * current value of the die, the die returns the string at that index.
  * 
  * <p>
- * To roll a die, the die sets its current value to a random value between 1 and
- * n, and returns the string of the current face.
+ * To roll a die, the die sets its current face to a random index between 0
+ * and n - 1 and returns the string of the current face. The random numbers
+ * come from a generator supplied by the caller, or from the generator of the
+ * current thread if no generator is supplied; in particular, dice never
+ * contend on a shared global generator, and a die rolled with a seeded
+ * generator produces a reproducible sequence of faces.
  * 
  */
 public class Die {
 
-	private SortedMap<Integer, String> valueMap;
+	private final String[] faces;
 
-	private int currentvalue = 1;
+	private int current = 0;
 
 	/**
 	 * Initializes an n-sided die where the sides are decorated with the strings
@@ -94,10 +74,7 @@ public class Die {
 		if (faces.length == 0) {
 			throw new IllegalArgumentException("Must have at least 1 face");
 		}
-		this.valueMap = new TreeMap<Integer, String>();
-		for (int i = 1; i <= faces.length; i++) {
-			this.valueMap.put(i, faces[i - 1]);
-		}
+		this.faces = faces.clone();
 
 	}
 
@@ -112,7 +89,8 @@ public class Die {
 	 *            the die to copy
 	 */
 	public Die(Die other) {
-		this.valueMap = new TreeMap<Integer, String>(other.valueMap);
+		this.faces = other.faces;
+		this.current = other.current;
 
 	}
 
@@ -123,7 +101,7 @@ public class Die {
 	 */
 	public int getNumberOfFaces() {
 
-		return this.valueMap.lastKey();
+		return this.faces.length;
 
 	}
 
@@ -133,12 +111,21 @@ public class Die {
 	 * @return the string on face after rolling the die
 	 */
 	public String roll() {
-		int max = this.valueMap.lastKey();
-		int rand = (int) (max * Math.random() + 1);
+		return this.roll(ThreadLocalRandom.current());
+	}
 
-		this.currentvalue = rand;
+	/**
+	 * Rolls the die to a new random face chosen using the specified random
+	 * number generator, and returns the string on the face.
+	 * 
+	 * @param rng
+	 *            the random number generator used to choose the face
+	 * @return the string on face after rolling the die
+	 */
+	public String roll(RandomGenerator rng) {
+		this.current = rng.nextInt(this.faces.length);
 
-		return this.valueMap.get(rand);
+		return this.faces[this.current];
 
 	}
 
@@ -148,7 +135,7 @@ public class Die {
 	 * @return the string corresponding to the current face value of the die
 	 */
 	public String getValue() {
-		return this.valueMap.get(this.currentvalue);
+		return this.faces[this.current];
 	}
 
 	/**
@@ -181,7 +168,10 @@ public class Die {
 	 * @return a sorted map of the faces to letters
 	 */
 	public SortedMap<Integer, String> getValueMap() {
-		SortedMap<Integer, String> map = new TreeMap<Integer, String>(this.valueMap);
+		SortedMap<Integer, String> map = new TreeMap<Integer, String>();
+		for (int i = 1; i <= this.faces.length; i++) {
+			map.put(i, this.faces[i - 1]);
+		}
 
 		return map;
 
@@ -198,8 +188,7 @@ public class Die {
 	@Override
 	public int hashCode() {
 		int sum = 0;
-		for (int i = 1; i <= this.valueMap.lastKey(); i++) {
-			String str = this.valueMap.get(i);
+		for (String str : this.faces) {
 			sum = sum + str.hashCode();
 		}
 
@@ -295,33 +284,19 @@ public class Die {
 			return false;
 		}
 
-		Die newdie = new Die((Die) (obj));
-		if (newdie.getNumberOfFaces() != this.getNumberOfFaces()) {
+		Die other = (Die) obj;
+		if (other.faces.length != this.faces.length) {
 			return false;
 		}
-		if (!this.getValue().equals(newdie.getValue())) {
+		if (!this.getValue().equals(other.getValue())) {
 			return false;
 		}
 
-		List<String> list1 = new ArrayList<String>();
-		List<String> list2 = new ArrayList<String>();
-		for (int i = 1; i <= this.getNumberOfFaces(); i++) {
-			list1.add(this.valueMap.get(i));
-			list2.add(newdie.valueMap.get(i));
-		}
-
-		boolean b = false;
-		for (int i = 1; i <= this.getNumberOfFaces(); i++) {
-			String current = this.valueMap.get(i);
-			if (newdie.valueMap.containsValue(current) && (Collections.frequency(list1,
-					this.valueMap.get(i)) == Collections.frequency(list2, newdie.valueMap.get(i)))) {
-				b = true;
-			} else {
-				b = false;
-				break;
-			}
-		}
-		return b;
+		String[] sorted1 = this.faces.clone();
+		String[] sorted2 = other.faces.clone();
+		Arrays.sort(sorted1);
+		Arrays.sort(sorted2);
+		return Arrays.equals(sorted1, sorted2);
 
 	}
 
@@ -348,15 +323,7 @@ public class Die {
 	 */
 	@Override
 	public String toString() {
-		String s = "";
-		for (int i = 1; i <= this.getNumberOfFaces(); i++) {
-			s += this.valueMap.get(i);
-			if (i == this.getNumberOfFaces()) {
-				break;
-			}
-			s += ", ";
-
-		}
+		String s = String.join(", ", this.faces);
 
 		return s;
 
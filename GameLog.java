@@ -0,0 +1,862 @@
+package eecs2030.lab4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An append-only binary log of the events of Boggle games: the seeds of the
+ * random number generators that roll the dice, the boards of the rounds, and
+ * every submitted word with the verdict it was given. A log can be read back
+ * with <code>read</code>, and re-executed against the model with
+ * <code>GameReplay</code> to settle disputes or to replay recorded traffic as
+ * a load test.
+ *
+ * <p>
+ * A log may be written to by any number of threads at once, for example by
+ * every room of a server. Every round logged is given a number, and the words
+ * submitted in the round refer to the round by its number, so the events of
+ * many rooms can be interleaved in one log. Opening an existing log appends
+ * to it; the numbers of the rounds start again from 0 in every session.
+ *
+ * <p>
+ * Implementation Details: A log file starts with the integer
+ * <code>MAGIC</code> and the integer <code>VERSION</code>, followed by
+ * records. Every record is a type byte, the number of microseconds since the
+ * previous record, and the fields of the record. Integers other than the
+ * header and the wall clock time and seed are written as variable-length
+ * quantities of 7 bits per byte, strings as their length followed by their
+ * UTF-8 bytes, and a board as its number of dice followed by one face code per
+ * die, so a typical submission takes about a dozen bytes. Every session
+ * begins with a record holding the wall clock time at which the log was
+ * opened.
+ *
+ * <p>
+ * Logging a record never waits for a lock or for the file: the record is put
+ * on a lock-free queue and the method returns. A single writer thread owned
+ * by the log takes the records from the queue in order, encodes them into a
+ * direct buffer, and writes the buffer to the file with a single channel
+ * write whenever the queue is empty or the buffer is full, so records are
+ * written in batches when many threads are logging. The queue is not bounded.
+ * If writing fails, or the writer thread fails, later records are discarded,
+ * every thread waiting in <code>flush</code> is released, and every later
+ * call to the log throws the error.
+ *
+ * <p>
+ * A record cut short by a crash at the end of the file is ignored when the
+ * log is read, and removed when the log is opened again, so later sessions
+ * can still be read. Names and words are at most
+ * <code>MAX_STRING_LENGTH</code> characters long, which bounds the length of
+ * a record; a record that runs past the end of the file but starts further
+ * than that from the end was not cut short, and the log is reported as
+ * corrupt instead.
+ */
+public final class GameLog implements Closeable {
+
+	/**
+	 * Receives the records of a log, in the order they were written. Every
+	 * method is passed the wall clock time of the record in microseconds
+	 * since the epoch, and does nothing unless it is overridden.
+	 */
+	public interface Visitor {
+
+		/**
+		 * Receives the start of a session of the log. The rounds of earlier
+		 * sessions are not referred to by later records.
+		 *
+		 * @param micros
+		 *            the time of the record
+		 */
+		default void open(long micros) {
+		}
+
+		/**
+		 * Receives the seed of the random number generator of the game
+		 * played in the specified room.
+		 *
+		 * @param micros
+		 *            the time of the record
+		 * @param room
+		 *            the name of the room
+		 * @param size
+		 *            the size of the board of the game
+		 * @param seed
+		 *            the seed of the random number generator
+		 */
+		default void seed(long micros, String room, BoardSize size, long seed) {
+		}
+
+		/**
+		 * Receives the start of a round.
+		 *
+		 * @param micros
+		 *            the time of the record
+		 * @param round
+		 *            the number of the round in the current session
+		 * @param room
+		 *            the name of the room
+		 * @param board
+		 *            the board of the round
+		 */
+		default void round(long micros, int round, String room, Board board) {
+		}
+
+		/**
+		 * Receives a submitted word and its verdict.
+		 *
+		 * @param micros
+		 *            the time of the record
+		 * @param round
+		 *            the number of the round in the current session
+		 * @param player
+		 *            the name of the player
+		 * @param word
+		 *            the word, as submitted
+		 * @param verdict
+		 *            the verdict on the word
+		 */
+		default void word(long micros, int round, String player, String word, GameRoom.Verdict verdict) {
+		}
+	}
+
+	/**
+	 * The largest number of characters in a name or a word that can be
+	 * logged.
+	 */
+	public static final int MAX_STRING_LENGTH = 256;
+
+	/**
+	 * The first integer of a log file.
+	 */
+	static final int MAGIC = 0x474f4c42;
+
+	/**
+	 * The version of the log file format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The number of bytes in the header of a log file.
+	 */
+	private static final int HEADER_BYTES = 8;
+
+	private static final byte OPEN = 1;
+	private static final byte SEED = 2;
+	private static final byte ROUND = 3;
+	private static final byte WORD = 4;
+
+	/**
+	 * The largest number of bytes in the type and time of a record.
+	 */
+	private static final int PREFIX_BYTES = 1 + 10;
+
+	/**
+	 * The largest number of bytes in a record: the record of a word, with a
+	 * name and a word of the longest length, every character of which takes
+	 * at most 3 bytes in UTF-8.
+	 */
+	private static final int MAX_RECORD_BYTES = PREFIX_BYTES + 5 + 2 * (5 + 3 * MAX_STRING_LENGTH) + 1;
+
+	private static final int BUFFER_BYTES = 1 << 16;
+
+	private static final GameRoom.Verdict[] VERDICTS = GameRoom.Verdict.values();
+
+	/**
+	 * The type of the internal request to write out every record queued
+	 * before it; never written to a file.
+	 */
+	private static final byte FLUSH = 0;
+
+	/**
+	 * The type of the internal request to write out every record queued
+	 * before it and then stop the writer thread; never written to a file.
+	 */
+	private static final byte STOP = -1;
+
+	/**
+	 * A record waiting to be written by the writer thread, or a request to
+	 * flush the log or stop the writer thread.
+	 */
+	private static final class Event {
+
+		private final byte type;
+		private final long nanos = System.nanoTime();
+		private final int round;
+		private final String name;
+		private final String word;
+		private final Board board;
+		private final BoardSize size;
+		private final long seed;
+		private final GameRoom.Verdict verdict;
+		private final CompletableFuture<Void> flushed;
+
+		private Event(byte type, int round, String name, String word, Board board, BoardSize size, long seed,
+				GameRoom.Verdict verdict, CompletableFuture<Void> flushed) {
+			this.type = type;
+			this.round = round;
+			this.name = name;
+			this.word = word;
+			this.board = board;
+			this.size = size;
+			this.seed = seed;
+			this.verdict = verdict;
+			this.flushed = flushed;
+		}
+	}
+
+	private final FileChannel channel;
+
+	/**
+	 * The events waiting to be written, in the order they were logged.
+	 */
+	private final LinkedTransferQueue<Event> queue = new LinkedTransferQueue<Event>();
+
+	/**
+	 * The thread that writes the queued events.
+	 */
+	private final ExecutorService writer;
+
+	private final AtomicInteger rounds = new AtomicInteger();
+
+	private volatile boolean closed;
+
+	/**
+	 * Whether the writer thread has carried out a request to stop.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * The first error the writer thread had writing the file, or the error
+	 * that stopped the writer thread, or null.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * The buffer the writer thread encodes records into.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * The value of <code>System.nanoTime</code> at the time of the last
+	 * record, rounded down to a whole number of microseconds after the first;
+	 * used only by the writer thread.
+	 */
+	private long last;
+
+	private GameLog(FileChannel channel) {
+		this.channel = channel;
+		this.writer = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "game-log");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Opens the specified log for appending, creating it if it does not
+	 * exist. If the last record of an existing log was cut short, it is
+	 * removed before anything is appended.
+	 *
+	 * @param file
+	 *            the log file
+	 * @return the open log
+	 * @throws IOException
+	 *             if the file cannot be opened, is not a log file or has a
+	 *             corrupt record
+	 */
+	public static GameLog open(Path file) throws IOException {
+		return open(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE), file);
+	}
+
+	/**
+	 * Opens a log that appends to the specified channel, which is closed if
+	 * the log cannot be opened and when the log is closed. Lets tests write
+	 * to a channel that fails.
+	 *
+	 * @param channel
+	 *            a channel open for reading and writing
+	 * @param file
+	 *            the file of the channel, for error messages
+	 * @return the open log
+	 * @throws IOException
+	 *             if the channel cannot be read, is not a log file or has a
+	 *             corrupt record
+	 */
+	static GameLog open(FileChannel channel, Path file) throws IOException {
+		GameLog log = new GameLog(channel);
+		try {
+			if (channel.size() == 0) {
+				log.buffer.putInt(MAGIC).putInt(VERSION);
+			} else {
+				MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				existing.order(ByteOrder.LITTLE_ENDIAN);
+				checkHeader(existing, file);
+				int end = parse(existing, file, new Visitor() {
+				});
+				if (end < channel.size()) {
+					channel.truncate(end);
+				}
+				channel.position(end);
+			}
+		} catch (IOException e) {
+			log.writer.shutdown();
+			channel.close();
+			throw e;
+		}
+		log.last = System.nanoTime();
+		log.buffer.put(OPEN).put((byte) 0).putLong(System.currentTimeMillis());
+		log.writer.execute(log::drain);
+		return log;
+	}
+
+	/**
+	 * Checks the header of a log file.
+	 *
+	 * @param header
+	 *            a buffer whose next bytes are the header
+	 * @param file
+	 *            the file, for error messages
+	 * @throws IOException
+	 *             if the header is not the header of a log file
+	 */
+	private static void checkHeader(ByteBuffer header, Path file) throws IOException {
+		if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+			throw new IOException(file + " is not a game log");
+		}
+		int version = header.getInt();
+		if (version != VERSION) {
+			throw new IOException(file + " has unsupported version " + version);
+		}
+	}
+
+	/**
+	 * Logs the seed of the random number generator of the game played in the
+	 * specified room. A game whose seed is logged before its rounds can have
+	 * its boards checked when the log is replayed.
+	 *
+	 * @param room
+	 *            the name of the room
+	 * @param size
+	 *            the size of the board of the game
+	 * @param seed
+	 *            the seed of the random number generator
+	 * @throws NullPointerException
+	 *             if the room or the size is null
+	 * @throws IllegalArgumentException
+	 *             if the name of the room is longer than
+	 *             <code>MAX_STRING_LENGTH</code>
+	 * @throws UncheckedIOException
+	 *             if the log has failed or been closed
+	 */
+	public void seed(String room, BoardSize size, long seed) {
+		checkLength(Objects.requireNonNull(room, "room"));
+		Objects.requireNonNull(size, "size");
+		this.enqueue(new Event(SEED, 0, room, null, null, size, seed, null, null));
+	}
+
+	/**
+	 * Logs the start of a round played in the specified room on the specified
+	 * board.
+	 *
+	 * @param room
+	 *            the name of the room
+	 * @param board
+	 *            the board of the round
+	 * @return the number of the round, which the words submitted in the round
+	 *         are logged with
+	 * @throws NullPointerException
+	 *             if the room or the board is null
+	 * @throws IllegalArgumentException
+	 *             if the name of the room is longer than
+	 *             <code>MAX_STRING_LENGTH</code>
+	 * @throws UncheckedIOException
+	 *             if the log has failed or been closed
+	 */
+	public int round(String room, Board board) {
+		checkLength(Objects.requireNonNull(room, "room"));
+		Objects.requireNonNull(board, "board");
+		int round = this.rounds.getAndIncrement();
+		this.enqueue(new Event(ROUND, round, room, null, board, null, 0, null, null));
+		return round;
+	}
+
+	/**
+	 * Logs a word submitted in the specified round and the verdict it was
+	 * given.
+	 *
+	 * @param round
+	 *            the number returned when the round was logged
+	 * @param player
+	 *            the name of the player
+	 * @param word
+	 *            the word, as submitted
+	 * @param verdict
+	 *            the verdict on the word
+	 * @throws NullPointerException
+	 *             if the player, the word or the verdict is null
+	 * @throws IllegalArgumentException
+	 *             if the name of the player or the word is longer than
+	 *             <code>MAX_STRING_LENGTH</code>
+	 * @throws UncheckedIOException
+	 *             if the log has failed or been closed
+	 */
+	public void word(int round, String player, String word, GameRoom.Verdict verdict) {
+		checkLength(Objects.requireNonNull(player, "player"));
+		checkLength(Objects.requireNonNull(word, "word"));
+		Objects.requireNonNull(verdict, "verdict");
+		this.enqueue(new Event(WORD, round, player, word, null, null, 0, verdict, null));
+	}
+
+	/**
+	 * Checks that the specified name or word is short enough to be logged.
+	 *
+	 * @param s
+	 *            a name or a word
+	 * @throws IllegalArgumentException
+	 *             if the string is longer than <code>MAX_STRING_LENGTH</code>
+	 */
+	private static void checkLength(String s) {
+		if (s.length() > MAX_STRING_LENGTH) {
+			throw new IllegalArgumentException(
+					"cannot log a string of " + s.length() + " characters; the limit is " + MAX_STRING_LENGTH);
+		}
+	}
+
+	/**
+	 * Queues an event for the writer thread.
+	 *
+	 * @param event
+	 *            the event
+	 * @throws UncheckedIOException
+	 *             if the log has failed or been closed
+	 */
+	private void enqueue(Event event) {
+		this.checkFailure();
+		this.queue.offer(event);
+	}
+
+	/**
+	 * Throws an exception if the writer thread has failed or the log has been
+	 * closed.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the log has failed or been closed
+	 */
+	private void checkFailure() {
+		IOException e = this.failure;
+		if (e != null) {
+			throw new UncheckedIOException(e);
+		}
+		if (this.closed) {
+			throw new UncheckedIOException(new ClosedChannelException());
+		}
+	}
+
+	/**
+	 * Writes the queued events until a request to stop. The buffer is written
+	 * to the file whenever no more events are waiting or it is full. If the
+	 * writer thread fails, the error is recorded as the failure of the log,
+	 * every waiting flush is completed with it and the thread stops; the error
+	 * is reported by later calls to the log, not thrown out of the thread.
+	 */
+	private void drain() {
+		Event e = null;
+		try {
+			while (true) {
+				e = this.queue.take();
+				do {
+					if (e.type == FLUSH || e.type == STOP) {
+						this.write();
+						if (e.type == STOP) {
+							this.stopped = true;
+							e.flushed.complete(null);
+							return;
+						}
+						e.flushed.complete(null);
+					} else {
+						this.encode(e);
+					}
+					e = this.queue.poll();
+				} while (e != null);
+				this.write();
+			}
+		} catch (InterruptedException interrupted) {
+			// the writer thread is never interrupted; stop as if closed
+		} catch (RuntimeException | Error t) {
+			if (this.failure == null) {
+				this.failure = new IOException("the game log writer failed", t);
+			}
+			UncheckedIOException failed = new UncheckedIOException(this.failure);
+			// the request being carried out has already been taken from the queue
+			if (e != null && e.flushed != null) {
+				e.flushed.completeExceptionally(failed);
+			}
+			for (Event q = this.queue.poll(); q != null; q = this.queue.poll()) {
+				if (q.flushed != null) {
+					q.flushed.completeExceptionally(failed);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Puts the record of the specified event in the buffer.
+	 *
+	 * @param e
+	 *            an event other than a flush
+	 */
+	private void encode(Event e) {
+		byte[] name = e.name.getBytes(StandardCharsets.UTF_8);
+		if (e.type == SEED) {
+			this.begin(e, 5 + name.length + 1 + 8);
+			putBytes(this.buffer, name);
+			this.buffer.put((byte) e.size.getRows()).putLong(e.seed);
+		} else if (e.type == ROUND) {
+			this.begin(e, 5 + 5 + name.length + 1 + e.board.size());
+			putVarLong(this.buffer, e.round);
+			putBytes(this.buffer, name);
+			this.buffer.put((byte) e.board.size()).put(e.board.codes());
+		} else {
+			byte[] word = e.word.getBytes(StandardCharsets.UTF_8);
+			this.begin(e, 5 + 5 + name.length + 5 + word.length + 1);
+			putVarLong(this.buffer, e.round);
+			putBytes(this.buffer, name);
+			putBytes(this.buffer, word);
+			this.buffer.put((byte) e.verdict.ordinal());
+		}
+	}
+
+	/**
+	 * Makes room in the buffer for the record of the specified event with at
+	 * most the specified number of bytes of fields, and puts the type and time
+	 * of the record. An event logged by one thread may be taken from the queue
+	 * just after a later event logged by another thread; the time between
+	 * them is recorded as 0.
+	 *
+	 * @param e
+	 *            the event
+	 * @param fieldBytes
+	 *            the largest number of bytes in the fields of the record
+	 */
+	private void begin(Event e, int fieldBytes) {
+		int bytes = PREFIX_BYTES + fieldBytes;
+		if (this.buffer.remaining() < bytes) {
+			this.write();
+			if (this.buffer.capacity() < bytes) {
+				this.buffer = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+			}
+		}
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(e.nanos - this.last));
+		this.last += TimeUnit.MICROSECONDS.toNanos(micros);
+		this.buffer.put(e.type);
+		putVarLong(this.buffer, micros);
+	}
+
+	/**
+	 * Writes the buffer to the file and empties it. After the first error,
+	 * records are discarded instead of written.
+	 */
+	private void write() {
+		this.buffer.flip();
+		try {
+			while (this.failure == null && this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+		} catch (IOException e) {
+			this.failure = e;
+		} finally {
+			this.buffer.clear();
+		}
+	}
+
+	/**
+	 * Waits until every record logged so far has been written to the file.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the log cannot be written or has been closed
+	 */
+	public void flush() {
+		this.checkFailure();
+		this.request(FLUSH);
+		this.checkFailure();
+	}
+
+	/**
+	 * Queues a request of the specified type for the writer thread, and waits
+	 * until the writer thread has carried it out or has failed.
+	 *
+	 * @param type
+	 *            the type of the request
+	 */
+	private void request(byte type) {
+		CompletableFuture<Void> done = new CompletableFuture<Void>();
+		this.queue.offer(new Event(type, 0, null, null, null, null, 0, null, done));
+		IOException e = this.failure;
+		if (e == null && this.stopped) {
+			e = new ClosedChannelException();
+		}
+		if (e != null) {
+			// the writer thread may have stopped before the request was queued
+			done.completeExceptionally(new UncheckedIOException(e));
+		}
+		try {
+			done.join();
+		} catch (CompletionException failed) {
+			// the writer thread failed; the caller checks the failure
+		}
+	}
+
+	/**
+	 * Writes every record logged so far to the file, stops the writer thread
+	 * and closes the file. The writer thread is asked to stop by a request
+	 * queued after the records, never interrupted, so a write in progress is
+	 * always finished. Records logged by other threads while the log is being
+	 * closed may be lost. Closing a closed log has no effect.
+	 *
+	 * @throws IOException
+	 *             if the log cannot be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			this.request(STOP);
+		} finally {
+			this.writer.shutdown();
+			try {
+				this.writer.awaitTermination(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// release any thread still waiting in flush
+			for (Event e = this.queue.poll(); e != null; e = this.queue.poll()) {
+				if (e.flushed != null) {
+					e.flushed.complete(null);
+				}
+			}
+			this.channel.close();
+		}
+		if (this.failure != null) {
+			throw this.failure;
+		}
+	}
+
+	/**
+	 * Passes every record of the specified log to the specified visitor, in
+	 * the order the records were written.
+	 *
+	 * @param file
+	 *            a log file
+	 * @param visitor
+	 *            receives the records of the log
+	 * @throws IOException
+	 *             if the file cannot be read or is not a log file
+	 */
+	public static void read(Path file, Visitor visitor) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		checkHeader(buffer, file);
+		parse(buffer, file, visitor);
+	}
+
+	/**
+	 * Passes the records from the position of the specified buffer to its
+	 * limit to the specified visitor, and returns the offset just after the
+	 * last complete record. The last record is not passed to the visitor if it
+	 * was cut short at the limit of the buffer; a record that runs past the
+	 * limit but starts more than <code>MAX_RECORD_BYTES</code> before it is
+	 * corrupt.
+	 *
+	 * @param buffer
+	 *            a buffer positioned at the first record of a log
+	 * @param file
+	 *            the file, for error messages
+	 * @param visitor
+	 *            receives the records of the log
+	 * @return the offset just after the last complete record
+	 * @throws IOException
+	 *             if a record other than the last is corrupt
+	 */
+	private static int parse(ByteBuffer buffer, Path file, Visitor visitor) throws IOException {
+		long micros = 0;
+		int start = buffer.position();
+		try {
+			while (buffer.hasRemaining()) {
+				start = buffer.position();
+				byte type = buffer.get();
+				if (type < OPEN || type > WORD) {
+					throw new IOException(file + " has a corrupt record at offset " + start);
+				}
+				micros += getVarLong(buffer, file, start);
+				switch (type) {
+				case OPEN:
+					micros = TimeUnit.MILLISECONDS.toMicros(buffer.getLong());
+					visitor.open(micros);
+					break;
+				case SEED:
+					visitor.seed(micros, getString(buffer, file, start), toSize(buffer.get(), file, start),
+							buffer.getLong());
+					break;
+				case ROUND:
+					int round = (int) getVarLong(buffer, file, start);
+					String room = getString(buffer, file, start);
+					byte[] codes = new byte[buffer.get() & 0xff];
+					buffer.get(codes);
+					visitor.round(micros, round, room, toBoard(codes, file, start));
+					break;
+				case WORD:
+					int r = (int) getVarLong(buffer, file, start);
+					String player = getString(buffer, file, start);
+					String word = getString(buffer, file, start);
+					int verdict = buffer.get();
+					if (verdict < 0 || verdict >= VERDICTS.length) {
+						throw new IOException(file + " has a corrupt record at offset " + start);
+					}
+					visitor.word(micros, r, player, word, VERDICTS[verdict]);
+					break;
+				default:
+					throw new IOException(file + " has a corrupt record at offset " + start);
+				}
+			}
+			return buffer.position();
+		} catch (BufferUnderflowException e) {
+			if (buffer.limit() - start > MAX_RECORD_BYTES) {
+				// a record this long was never written, so it is not the last
+				throw new IOException(file + " has a corrupt record at offset " + start, e);
+			}
+			// the last record was cut short
+			return start;
+		}
+	}
+
+	/**
+	 * Returns the board size with the specified number of rows read from a
+	 * log.
+	 *
+	 * @param rows
+	 *            the number of rows
+	 * @param file
+	 *            the file, for error messages
+	 * @param offset
+	 *            the offset of the record, for error messages
+	 * @return the board size with the number of rows
+	 * @throws IOException
+	 *             if no board size has the number of rows
+	 */
+	private static BoardSize toSize(byte rows, Path file, int offset) throws IOException {
+		try {
+			return BoardSize.forRows(rows);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(file + " has a corrupt record at offset " + offset, e);
+		}
+	}
+
+	/**
+	 * Returns the board with the specified face codes read from a log.
+	 *
+	 * @param codes
+	 *            the face codes
+	 * @param file
+	 *            the file, for error messages
+	 * @param offset
+	 *            the offset of the record, for error messages
+	 * @return the board with the face codes
+	 * @throws IOException
+	 *             if the codes are not the codes of a board
+	 */
+	private static Board toBoard(byte[] codes, Path file, int offset) throws IOException {
+		for (byte c : codes) {
+			if (c < 0 || c > Board.QU) {
+				throw new IOException(file + " has a corrupt record at offset " + offset);
+			}
+		}
+		try {
+			return new Board(codes);
+		} catch (IllegalArgumentException e) {
+			throw new IOException(file + " has a corrupt record at offset " + offset, e);
+		}
+	}
+
+	/**
+	 * Puts a non-negative integer in 7 bits per byte, low bits first, with the
+	 * high bit of every byte but the last set.
+	 *
+	 * @param buffer
+	 *            the buffer to put the integer in
+	 * @param value
+	 *            a non-negative integer
+	 */
+	private static void putVarLong(ByteBuffer buffer, long value) {
+		while ((value & ~0x7fL) != 0) {
+			buffer.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Gets an integer put by <code>putVarLong</code>.
+	 *
+	 * @param buffer
+	 *            the buffer to get the integer from
+	 * @param file
+	 *            the file, for error messages
+	 * @param offset
+	 *            the offset of the record, for error messages
+	 * @return the integer
+	 * @throws IOException
+	 *             if the integer has more bytes than a long needs
+	 */
+	private static long getVarLong(ByteBuffer buffer, Path file, int offset) throws IOException {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			if (shift >= Long.SIZE) {
+				throw new IOException(file + " has a corrupt record at offset " + offset);
+			}
+			byte b = buffer.get();
+			value |= (long) (b & 0x7f) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+
+	private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+		putVarLong(buffer, bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String getString(ByteBuffer buffer, Path file, int offset) throws IOException {
+		long length = getVarLong(buffer, file, offset);
+		if (length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[(int) length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,303 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Re-executes the games recorded in a <code>GameLog</code> against the model
+ * as fast as possible, and reports every word whose verdict differs from the
+ * verdict that was logged. Replaying a log settles a dispute about a word, and
+ * replaying a log recorded by a server measures how fast the model can serve
+ * the recorded traffic.
+ *
+ * <p>
+ * Every logged round is played again on its logged board with a new
+ * <code>RoomScoreboard</code>, and every logged word is submitted to it by
+ * the same player in the same order, so a word is only reported if the
+ * dictionary or the rules have changed since it was logged, or if the logged
+ * game did not follow the rules. Words that were logged as
+ * <code>CLOSED</code> are skipped, because the end of a round depends on the
+ * clock rather than on the model. If the seed of a room was logged, the dice
+ * of the room are also rolled again from the seed, and every logged board of
+ * the room that differs from the board rolled is reported.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java eecs2030.lab4.GameReplay log [dictionary]
+ * </pre>
+ *
+ * <p>
+ * The driver replays the log using the specified dictionary, or the default
+ * dictionary if none is given, and prints the disputed words and the number
+ * of words replayed per second. The log should be replayed with the
+ * dictionary it was recorded with.
+ *
+ * <p>
+ * Implementation Details: The log is read and replayed in a single pass on
+ * the calling thread, ignoring the recorded times. Only the most recent
+ * rounds are kept; a word submitted in a round that is no longer kept is
+ * reported.
+ */
+public class GameReplay implements GameLog.Visitor {
+
+	/**
+	 * The number of rounds whose scoreboards are kept.
+	 */
+	private static final int KEPT_ROUNDS = 4096;
+
+	/**
+	 * The largest number of disputes described by a result.
+	 */
+	private static final int MAXIMUM_DISPUTES = 100;
+
+	/**
+	 * The outcome of replaying a log.
+	 */
+	public static final class Result {
+
+		private final int rounds;
+		private final long words;
+		private final long skipped;
+		private final long mismatches;
+		private final long boardMismatches;
+		private final long nanos;
+		private final List<String> disputes;
+
+		private Result(GameReplay replay, long nanos) {
+			this.rounds = replay.roundCount;
+			this.words = replay.words;
+			this.skipped = replay.skipped;
+			this.mismatches = replay.mismatches;
+			this.boardMismatches = replay.boardMismatches;
+			this.nanos = nanos;
+			this.disputes = Collections.unmodifiableList(replay.disputes);
+		}
+
+		/**
+		 * Returns the number of rounds replayed.
+		 *
+		 * @return the number of rounds replayed
+		 */
+		public int getRounds() {
+			return this.rounds;
+		}
+
+		/**
+		 * Returns the number of words replayed, not counting the words that
+		 * were skipped.
+		 *
+		 * @return the number of words replayed
+		 */
+		public long getWords() {
+			return this.words;
+		}
+
+		/**
+		 * Returns the number of words skipped because they were submitted after
+		 * their round had ended.
+		 *
+		 * @return the number of words skipped
+		 */
+		public long getSkipped() {
+			return this.skipped;
+		}
+
+		/**
+		 * Returns the number of words whose replayed verdict differs from their
+		 * logged verdict.
+		 *
+		 * @return the number of words with a different verdict
+		 */
+		public long getMismatches() {
+			return this.mismatches;
+		}
+
+		/**
+		 * Returns the number of logged boards that differ from the boards
+		 * rolled again from the logged seeds.
+		 *
+		 * @return the number of boards that differ
+		 */
+		public long getBoardMismatches() {
+			return this.boardMismatches;
+		}
+
+		/**
+		 * Returns descriptions of the first words and boards that were found
+		 * to differ, in the order they were logged.
+		 *
+		 * @return descriptions of the differences
+		 */
+		public List<String> getDisputes() {
+			return this.disputes;
+		}
+
+		/**
+		 * Returns the number of words replayed per second.
+		 *
+		 * @return the number of words replayed per second
+		 */
+		public double getWordsPerSecond() {
+			return this.nanos == 0 ? 0 : this.words * 1e9 / this.nanos;
+		}
+
+		/**
+		 * Returns a string describing this result, for example
+		 * <code>"120 rounds, 5000 words (3 skipped), 0 mismatches, 0 board mismatches, 1250000 words/s"</code>.
+		 *
+		 * @return a string describing this result
+		 */
+		@Override
+		public String toString() {
+			return String.format("%d rounds, %d words (%d skipped), %d mismatches, %d board mismatches, %.0f words/s",
+					this.rounds, this.words, this.skipped, this.mismatches, this.boardMismatches,
+					this.getWordsPerSecond());
+		}
+	}
+
+	private final Dictionary dictionary;
+
+	/**
+	 * The game used to check the words of rooms whose seed was not logged.
+	 */
+	private final Boggle boggle;
+
+	/**
+	 * The games rolled again from the logged seeds, by room.
+	 */
+	private final Map<String, Boggle> seeded = new HashMap<String, Boggle>();
+
+	/**
+	 * The scoreboards of the most recent rounds of the current session, by
+	 * round number.
+	 */
+	private final Map<Integer, RoomScoreboard> rounds = new LinkedHashMap<Integer, RoomScoreboard>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, RoomScoreboard> eldest) {
+			return this.size() > KEPT_ROUNDS;
+		}
+	};
+
+	private final List<String> disputes = new ArrayList<String>();
+
+	private int roundCount;
+	private long words;
+	private long skipped;
+	private long mismatches;
+	private long boardMismatches;
+
+	private GameReplay(Dictionary dictionary) {
+		this.dictionary = dictionary;
+		this.boggle = new Boggle(dictionary);
+	}
+
+	/**
+	 * Replays the specified log using the specified dictionary.
+	 *
+	 * @param log
+	 *            a log file written by a <code>GameLog</code>
+	 * @param dictionary
+	 *            the dictionary of legal words
+	 * @return the outcome of the replay
+	 * @throws IOException
+	 *             if the log cannot be read
+	 */
+	public static Result replay(Path log, Dictionary dictionary) throws IOException {
+		GameReplay replay = new GameReplay(dictionary);
+		long start = System.nanoTime();
+		GameLog.read(log, replay);
+		return new Result(replay, System.nanoTime() - start);
+	}
+
+	@Override
+	public void open(long micros) {
+		this.seeded.clear();
+		this.rounds.clear();
+	}
+
+	@Override
+	public void seed(long micros, String room, BoardSize size, long seed) {
+		this.seeded.put(room, new Boggle(() -> this.dictionary, size, new SplittableRandom(seed)));
+	}
+
+	@Override
+	public void round(long micros, int round, String room, Board board) {
+		this.roundCount++;
+		Boggle game = this.seeded.get(room);
+		if (game == null) {
+			game = this.boggle;
+		} else {
+			game.shuffleAndRoll();
+			if (!game.getBoard().equals(board)) {
+				this.boardMismatches++;
+				this.dispute(micros, "room " + room + " round " + round + ": logged board " + board + ", rolled "
+						+ game.getBoard());
+			}
+		}
+		this.rounds.put(round, new RoomScoreboard(game, board));
+	}
+
+	@Override
+	public void word(long micros, int round, String player, String word, GameRoom.Verdict verdict) {
+		if (verdict == GameRoom.Verdict.CLOSED) {
+			this.skipped++;
+			return;
+		}
+		this.words++;
+		RoomScoreboard scoreboard = this.rounds.get(round);
+		if (scoreboard == null) {
+			this.mismatches++;
+			this.dispute(micros, "round " + round + " " + player + ": \"" + word + "\" logged " + verdict
+					+ ", round not replayed");
+			return;
+		}
+		GameRoom.Verdict replayed = scoreboard.submit(player, word);
+		if (replayed != verdict) {
+			this.mismatches++;
+			this.dispute(micros, "round " + round + " " + player + ": \"" + word + "\" logged " + verdict
+					+ ", replayed " + replayed);
+		}
+	}
+
+	/**
+	 * Records a description of a difference, unless enough differences have
+	 * already been described.
+	 *
+	 * @param micros
+	 *            the time of the logged record
+	 * @param description
+	 *            a description of the difference
+	 */
+	private void dispute(long micros, String description) {
+		if (this.disputes.size() < MAXIMUM_DISPUTES) {
+			this.disputes.add(Instant.ofEpochMilli(micros / 1000) + " " + description);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("usage: GameReplay <log> [dictionary]");
+			System.exit(1);
+		}
+		Dictionary dictionary = args.length > 1 ? DictionaryRegistry.get(Paths.get(args[1]))
+				: DictionaryRegistry.getDefault();
+		Result result = replay(Paths.get(args[0]), dictionary);
+		for (String d : result.getDisputes()) {
+			System.out.println(d);
+		}
+		System.out.println(result);
+	}
+}
@@ -0,0 +1,391 @@
+package eecs2030.lab4;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A room in which any number of players play timed rounds of Boggle on a
+ * shared board.
+ *
+ * <p>
+ * A round lasts for a fixed amount of time. Rounds are started lazily: the
+ * first request for the current round after the previous round has ended
+ * shakes the dice and starts a new round, so an idle room costs nothing. Words
+ * submitted after a round has ended are not accepted.
+ *
+ * <p>
+ * Every room has its own <code>Boggle</code> game, but all of the rooms of a
+ * server can share one dictionary. The dictionary is supplied rather than
+ * fixed, so it can be replaced, for example by a
+ * <code>DictionaryLoader</code>, while rounds are being played.
+ *
+ * <p>
+ * A room can take its boards from a <code>BoardPool</code>, so that starting
+ * a round does not have to wait for a board to be generated; if the pool is
+ * empty the room rolls its own dice instead.
+ *
+ * <p>
+ * Every round has its own <code>RoomScoreboard</code>. Submitting a word only
+ * reads the current round and then updates its scoreboard, so submissions
+ * from many players never wait on a lock; only starting a new round is
+ * synchronized.
+ *
+ * <p>
+ * A room can record its rounds in a <code>GameLog</code>, so that they can be
+ * replayed later by a <code>GameReplay</code>. A failure to write the log
+ * never costs a player a round or a verdict: the room stops logging, passes
+ * the failure to the handler given with the log, and plays on.
+ */
+public class GameRoom {
+
+	/**
+	 * The outcome of submitting a word.
+	 */
+	public enum Verdict {
+		/**
+		 * The word is a legal Boggle word on the current board and has been
+		 * scored.
+		 */
+		ACCEPTED,
+
+		/**
+		 * The word is not a legal Boggle word on the current board.
+		 */
+		REJECTED,
+
+		/**
+		 * The player has already submitted the word in the current round.
+		 */
+		DUPLICATE,
+
+		/**
+		 * The round has ended.
+		 */
+		CLOSED
+	}
+
+	/**
+	 * A round of a room: its number, its board, when it ends, and the words
+	 * submitted in it.
+	 */
+	public static final class Round {
+
+		private final int number;
+		private final RoomScoreboard scoreboard;
+		private final long endsAt;
+
+		/**
+		 * The log the round is recorded in, or null; cleared if the log
+		 * fails.
+		 */
+		private volatile GameLog log;
+
+		/**
+		 * The number of the round in its log.
+		 */
+		private final int logged;
+
+		private Round(int number, RoomScoreboard scoreboard, long endsAt, GameLog log, int logged) {
+			this.number = number;
+			this.scoreboard = scoreboard;
+			this.endsAt = endsAt;
+			this.log = log;
+			this.logged = logged;
+		}
+
+		/**
+		 * Returns the number of the round; the first round of a room is round
+		 * 1.
+		 *
+		 * @return the number of the round
+		 */
+		public int getNumber() {
+			return this.number;
+		}
+
+		/**
+		 * Returns the board of the round.
+		 *
+		 * @return the board of the round
+		 */
+		public Board getBoard() {
+			return this.scoreboard.getBoard();
+		}
+
+		/**
+		 * Returns the scoreboard of the round.
+		 *
+		 * @return the scoreboard of the round
+		 */
+		public RoomScoreboard getScoreboard() {
+			return this.scoreboard;
+		}
+
+		/**
+		 * Returns the number of milliseconds until the round ends, or 0 if the
+		 * round has ended.
+		 *
+		 * @return the number of milliseconds left in the round
+		 */
+		public long getMillisLeft() {
+			return Math.max(0, TimeUnit.NANOSECONDS.toMillis(this.endsAt - System.nanoTime()));
+		}
+
+		/**
+		 * Returns true if the round has ended.
+		 *
+		 * @return true if the round has ended, and false otherwise
+		 */
+		public boolean isOver() {
+			return System.nanoTime() - this.endsAt >= 0;
+		}
+	}
+
+	private final String name;
+
+	private final Boggle boggle;
+
+	/**
+	 * The pool the boards of new rounds are taken from, or null.
+	 */
+	private final BoardPool pool;
+
+	private final long roundNanos;
+
+	/**
+	 * The current round; volatile so that submissions can read it without
+	 * locking.
+	 */
+	private volatile Round round;
+
+	/**
+	 * The log new rounds are recorded in, or null; guarded by this room.
+	 */
+	private GameLog log;
+
+	/**
+	 * Receives the failures of the log, or null; guarded by this room.
+	 */
+	private Consumer<? super UncheckedIOException> onLogFailure;
+
+	/**
+	 * Initializes a room whose rounds last for the specified number of
+	 * milliseconds.
+	 *
+	 * @param name
+	 *            the name of the room
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 */
+	public GameRoom(String name, Supplier<Dictionary> dictionary, long roundMillis) {
+		this(name, dictionary, BoardSize.CLASSIC, roundMillis);
+	}
+
+	/**
+	 * Initializes a room played on boards of the specified size whose rounds
+	 * last for the specified number of milliseconds.
+	 *
+	 * @param name
+	 *            the name of the room
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param size
+	 *            the size of the boards
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 */
+	public GameRoom(String name, Supplier<Dictionary> dictionary, BoardSize size, long roundMillis) {
+		this(name, dictionary, size, null, roundMillis);
+	}
+
+	/**
+	 * Initializes a room played on boards of the specified size, taken from
+	 * the specified pool whenever it has a board ready, whose rounds last for
+	 * the specified number of milliseconds.
+	 *
+	 * @pre. the boards of the pool are of the specified size
+	 *
+	 * @param name
+	 *            the name of the room
+	 * @param dictionary
+	 *            supplies the current dictionary of legal words
+	 * @param size
+	 *            the size of the boards
+	 * @param pool
+	 *            the pool of boards, or null to always roll the dice of the
+	 *            room
+	 * @param roundMillis
+	 *            the length of a round in milliseconds
+	 */
+	public GameRoom(String name, Supplier<Dictionary> dictionary, BoardSize size, BoardPool pool,
+			long roundMillis) {
+		this.name = name;
+		this.pool = pool;
+		this.boggle = new Boggle(dictionary, size, new SplittableRandom());
+		this.roundNanos = TimeUnit.MILLISECONDS.toNanos(roundMillis);
+		this.round = new Round(0, new RoomScoreboard(this.boggle, this.boggle.getBoard()), System.nanoTime(), null,
+				-1);
+	}
+
+	/**
+	 * Returns the name of this room.
+	 *
+	 * @return the name of this room
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Returns true if the current round of this room has ended. A new round is
+	 * not started by this method.
+	 *
+	 * @return true if the current round has ended, and false otherwise
+	 */
+	public boolean isRoundOver() {
+		return this.round.isOver();
+	}
+
+	/**
+	 * Sets the log that the boards of the rounds of this room and the words
+	 * submitted in them are recorded in, starting with the next round. If the
+	 * log cannot be written, the room stops logging and passes the failure to
+	 * the specified handler, once for the log and at most once more for each
+	 * round already being logged; the handler is never called while the room
+	 * is locked.
+	 *
+	 * @param log
+	 *            the log, or null to stop logging
+	 * @param onFailure
+	 *            receives the failures of the log
+	 */
+	public synchronized void setLog(GameLog log, Consumer<? super UncheckedIOException> onFailure) {
+		this.log = log;
+		this.onLogFailure = onFailure;
+	}
+
+	/**
+	 * Returns the current round, first starting a new round if the previous
+	 * round has ended. A new round that cannot be logged is played without
+	 * being logged.
+	 *
+	 * @return the current round
+	 */
+	public Round currentRound() {
+		Consumer<? super UncheckedIOException> handler = null;
+		UncheckedIOException failure = null;
+		Round r;
+		synchronized (this) {
+			if (this.round.isOver()) {
+				Board board = this.nextBoard();
+				GameLog l = this.log;
+				int logged = -1;
+				if (l != null) {
+					try {
+						logged = l.round(this.name, board);
+					} catch (UncheckedIOException e) {
+						handler = this.stopLogging(l);
+						failure = e;
+						l = null;
+					}
+				}
+				this.round = new Round(this.round.getNumber() + 1, new RoomScoreboard(this.boggle, board),
+						System.nanoTime() + this.roundNanos, l, logged);
+			}
+			r = this.round;
+		}
+		if (handler != null) {
+			handler.accept(failure);
+		}
+		return r;
+	}
+
+	/**
+	 * Stops recording new rounds in the specified log, which has failed,
+	 * unless another log has been set since.
+	 *
+	 * @param failed
+	 *            the log that failed
+	 * @return the handler of the failure
+	 */
+	private synchronized Consumer<? super UncheckedIOException> stopLogging(GameLog failed) {
+		if (this.log == failed) {
+			this.log = null;
+		}
+		return this.onLogFailure;
+	}
+
+	/**
+	 * Returns the board of a new round: a board from the pool if it has one
+	 * ready, and otherwise a new roll of the dice of this room.
+	 *
+	 * @return the board of a new round
+	 */
+	private Board nextBoard() {
+		Solution pooled = this.pool == null ? null : this.pool.poll();
+		if (pooled != null) {
+			return pooled.getBoard();
+		}
+		this.boggle.shuffleAndRoll();
+		return this.boggle.getBoard();
+	}
+
+	/**
+	 * Submits a word for the specified player in the current round, and
+	 * records the word and its verdict if the round is logged. A new round is
+	 * never started by this method.
+	 *
+	 * @param player
+	 *            the name of the player
+	 * @param word
+	 *            the word
+	 * @return the verdict on the word, whether or not it could be logged
+	 */
+	public Verdict submit(String player, String word) {
+		Round r = this.round;
+		Verdict verdict = r.isOver() ? Verdict.CLOSED : r.getScoreboard().submit(player, word);
+		GameLog l = r.log;
+		if (l != null) {
+			try {
+				l.word(r.logged, player, word, verdict);
+			} catch (UncheckedIOException e) {
+				// the rest of the round is played without being logged
+				r.log = null;
+				Consumer<? super UncheckedIOException> handler = this.stopLogging(l);
+				if (handler != null) {
+					handler.accept(e);
+				}
+			}
+		}
+		return verdict;
+	}
+
+	/**
+	 * Returns the score of the specified player in the current round, before
+	 * words found by other players are cancelled.
+	 *
+	 * @param player
+	 *            the name of the player
+	 * @return the provisional score of the player
+	 */
+	public int getScore(String player) {
+		return this.round.getScoreboard().getProvisionalScore(player);
+	}
+
+	/**
+	 * Returns the final score of every player in the current round, with words
+	 * found by more than one player cancelled. The scores are only final once
+	 * the round has ended.
+	 *
+	 * @return the final score of every player
+	 */
+	public Map<String, Integer> getFinalScores() {
+		return this.round.getScoreboard().getFinalScores();
+	}
+}
@@ -0,0 +1,126 @@
+package eecs2030.lab4;
+
+/**
+ * The geometry of a square Boggle board. The dice on a board with
+ * <code>size</code> rows and columns are indexed in row-major order, so the
+ * die in row <code>r</code> and column <code>c</code> has index
+ * <code>r * size + c</code>.
+ *
+ * <p>
+ * Implementation Details: The neighbours of every die are precomputed as a
+ * bit mask whose bit <code>n</code> is set if the die with index
+ * <code>n</code> is one of the (up to 8) dice surrounding the die. Sets of dice,
+ * such as the dice already used by a word, can then be represented as a
+ * <code>long</code> and combined with a neighbour mask without allocating. A
+ * <code>long</code> has 64 bits, so boards of up to 8 by 8 dice are supported.
+ * There is one shared grid for each size.
+ */
+final class Grid {
+
+	/**
+	 * The largest number of rows (and columns) of dice on a board.
+	 */
+	static final int MAXIMUM_SIZE = 8;
+
+	/**
+	 * The largest number of dice on a board.
+	 */
+	static final int MAXIMUM_CELLS = MAXIMUM_SIZE * MAXIMUM_SIZE;
+
+	/**
+	 * The grid of each size, indexed by size.
+	 */
+	private static final Grid[] GRIDS = new Grid[MAXIMUM_SIZE + 1];
+
+	static {
+		for (int size = 1; size <= MAXIMUM_SIZE; size++) {
+			GRIDS[size] = new Grid(size);
+		}
+	}
+
+	private final int size;
+
+	private final long[] neighbors;
+
+	private Grid(int size) {
+		this.size = size;
+		int cells = size * size;
+		this.neighbors = new long[cells];
+		for (int idx = 0; idx < cells; idx++) {
+			int row = idx / size;
+			int col = idx % size;
+			long mask = 0;
+			for (int i = Math.max(0, row - 1); i <= Math.min(size - 1, row + 1); i++) {
+				for (int j = Math.max(0, col - 1); j <= Math.min(size - 1, col + 1); j++) {
+					mask |= 1L << (i * size + j);
+				}
+			}
+			this.neighbors[idx] = mask & ~(1L << idx);
+		}
+	}
+
+	/**
+	 * Returns the grid with the specified number of rows and columns.
+	 *
+	 * @param size
+	 *            the number of rows (and columns) of dice
+	 * @return the grid with the specified size
+	 * @throws IllegalArgumentException
+	 *             if <code>size</code> is less than 1 or greater than
+	 *             <code>MAXIMUM_SIZE</code>
+	 */
+	static Grid of(int size) {
+		if (size < 1 || size > MAXIMUM_SIZE) {
+			throw new IllegalArgumentException("unsupported board size: " + size);
+		}
+		return GRIDS[size];
+	}
+
+	/**
+	 * Returns the square grid with the specified number of dice.
+	 *
+	 * @param cells
+	 *            the number of dice on the board
+	 * @return the grid with the specified number of dice
+	 * @throws IllegalArgumentException
+	 *             if <code>cells</code> is not the square of a size between 1
+	 *             and <code>MAXIMUM_SIZE</code>
+	 */
+	static Grid forCells(int cells) {
+		int size = (int) Math.sqrt(cells);
+		if (size * size != cells) {
+			throw new IllegalArgumentException("not a square board: " + cells + " dice");
+		}
+		return of(size);
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of dice on this grid.
+	 *
+	 * @return the number of rows of dice
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of dice on this grid.
+	 *
+	 * @return the number of dice
+	 */
+	int cells() {
+		return this.neighbors.length;
+	}
+
+	/**
+	 * Returns the bit mask of the dice surrounding the die with the specified
+	 * index.
+	 *
+	 * @param idx
+	 *            the index of a die
+	 * @return the bit mask of the neighbours of the die
+	 */
+	long neighbors(int idx) {
+		return this.neighbors[idx];
+	}
+}
@@ -0,0 +1,160 @@
+package eecs2030.lab4;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds, that
+ * any number of threads can record into at once.
+ *
+ * <p>
+ * Implementation Details: The histogram is laid out like an HDR histogram.
+ * Values below 8 have a bucket each, and every power of two above that is
+ * split into 8 equal buckets, so every value is counted in a bucket whose
+ * width is at most an eighth of its lowest value, and a percentile is
+ * reported to within 12.5% using fewer than 500 buckets for the whole range
+ * of <code>long</code>. Finding the bucket of a value takes a few bit
+ * operations, and every bucket is a <code>LongAdder</code>, so recording a
+ * value allocates nothing and threads recording at the same time do not
+ * contend for the same memory. Reading the histogram sums the buckets, so
+ * reads are slower than writes and may miss values recorded at the same
+ * time.
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * The number of bits of a value, after its highest bit, that select its
+	 * bucket within its power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private final LongAdder[] buckets = new LongAdder[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator maximum = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Initializes an empty histogram.
+	 */
+	public LatencyHistogram() {
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Returns the index of the bucket that counts the specified value.
+	 *
+	 * @param value
+	 *            a non-negative value
+	 * @return the index of the bucket of the value
+	 */
+	private static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * Returns the largest value counted by the specified bucket.
+	 *
+	 * @param bucket
+	 *            the index of a bucket
+	 * @return the largest value of the bucket
+	 */
+	private static long highestValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Records the specified value. A negative value is recorded as 0.
+	 *
+	 * @param value
+	 *            the value to record
+	 */
+	public void record(long value) {
+		long v = Math.max(0, value);
+		this.buckets[bucket(v)].increment();
+		this.sum.add(v);
+		this.maximum.accumulate(v);
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 *
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		long count = 0;
+		for (LongAdder b : this.buckets) {
+			count += b.sum();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the mean of the values recorded, or 0 if no value has been
+	 * recorded.
+	 *
+	 * @return the mean of the values recorded
+	 */
+	public double getMean() {
+		long count = this.getCount();
+		return count == 0 ? 0 : (double) this.sum.sum() / count;
+	}
+
+	/**
+	 * Returns the largest value recorded, or 0 if no value has been recorded.
+	 *
+	 * @return the largest value recorded
+	 */
+	public long getMaximum() {
+		return this.maximum.get();
+	}
+
+	/**
+	 * Returns a value that the specified percentage of the values recorded do
+	 * not exceed, to within the width of a bucket, or 0 if no value has been
+	 * recorded. The value returned is never less than the true percentile.
+	 *
+	 * @param percentile
+	 *            a percentage between 0 and 100
+	 * @return the value at the percentile
+	 * @throws IllegalArgumentException
+	 *             if <code>percentile</code> is not between 0 and 100
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("percentile out of range: " + percentile);
+		}
+		long[] counts = new long[this.buckets.length];
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = this.buckets[i].sum();
+			count += counts[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(highestValue(i), this.getMaximum());
+			}
+		}
+		return this.getMaximum();
+	}
+}
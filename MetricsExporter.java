@@ -0,0 +1,45 @@
+package eecs2030.lab4;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Receives snapshots of the metrics of the Boggle model, for example to send
+ * them to a monitoring system. An exporter is given to
+ * <code>BoggleMetrics.export</code>, which passes it a snapshot at a fixed
+ * rate.
+ *
+ * @see BoggleMetrics#snapshot()
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+	/**
+	 * Exports a snapshot of the metrics. This method is called on a
+	 * background thread owned by <code>BoggleMetrics</code>, and should not
+	 * block for long.
+	 *
+	 * @param metrics
+	 *            the value of every metric, by name, in order of name
+	 */
+	void export(Map<String, Number> metrics);
+
+	/**
+	 * Returns an exporter that prints every metric of a snapshot on its own
+	 * line, as its name and value separated by a space.
+	 *
+	 * @param out
+	 *            the stream to print to
+	 * @return an exporter that prints to the stream
+	 */
+	static MetricsExporter toStream(PrintStream out) {
+		return metrics -> {
+			StringBuilder b = new StringBuilder();
+			for (Map.Entry<String, Number> e : metrics.entrySet()) {
+				b.append(e.getKey()).append(' ').append(e.getValue()).append(System.lineSeparator());
+			}
+			out.print(b);
+			out.flush();
+		};
+	}
+}
@@ -0,0 +1,143 @@
+package eecs2030.lab4;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the words submitted by the players of one round and scores them
+ * using the classic Boggle rule that a word found by more than one player is
+ * cancelled and scores nothing.
+ *
+ * <p>
+ * Implementation Details: The scoreboard keeps a concurrent map from each
+ * accepted word to the concurrent set of players who found it, and a
+ * concurrent map from each player to a <code>LongAdder</code> holding the
+ * points of the player's accepted words before cancellation. Submissions from
+ * any number of threads update these structures with compare-and-set
+ * operations on independent bins, so submissions never wait on a lock shared
+ * by the whole room. Final scores are computed from the word map when they are
+ * asked for.
+ */
+public class RoomScoreboard {
+
+	private final Boggle boggle;
+
+	private final Board board;
+
+	/**
+	 * The players who found each accepted word.
+	 */
+	private final ConcurrentMap<String, Set<String>> finders = new ConcurrentHashMap<String, Set<String>>();
+
+	/**
+	 * The points of each player's accepted words, before shared words are
+	 * cancelled.
+	 */
+	private final ConcurrentMap<String, LongAdder> points = new ConcurrentHashMap<String, LongAdder>();
+
+	/**
+	 * Initializes an empty scoreboard for a round played on the specified
+	 * board.
+	 *
+	 * @param boggle
+	 *            the game whose dictionary is used to check words
+	 * @param board
+	 *            the board of the round
+	 */
+	public RoomScoreboard(Boggle boggle, Board board) {
+		this.boggle = boggle;
+		this.board = board;
+	}
+
+	/**
+	 * Returns the board of the round.
+	 *
+	 * @return the board of the round
+	 */
+	public Board getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * Submits a word for the specified player. The case of the word is not
+	 * important. This method may be called by any number of threads at once.
+	 *
+	 * @param player
+	 *            the name of the player
+	 * @param word
+	 *            the word
+	 * @return <code>ACCEPTED</code> if the word is a legal Boggle word on the
+	 *         board that the player has not submitted before,
+	 *         <code>DUPLICATE</code> if the player has already submitted it,
+	 *         and <code>REJECTED</code> otherwise
+	 */
+	public GameRoom.Verdict submit(String player, String word) {
+		String w = word.toLowerCase(Locale.ROOT);
+		Set<String> players = this.finders.get(w);
+		if (players != null && players.contains(player)) {
+			return GameRoom.Verdict.DUPLICATE;
+		}
+		if (!this.boggle.isABoggleWord(w, this.board)) {
+			return GameRoom.Verdict.REJECTED;
+		}
+		if (players == null) {
+			players = this.finders.computeIfAbsent(w, k -> ConcurrentHashMap.newKeySet());
+		}
+		if (!players.add(player)) {
+			return GameRoom.Verdict.DUPLICATE;
+		}
+		this.points.computeIfAbsent(player, k -> new LongAdder()).add(BoggleScorer.pointsFor(w));
+		return GameRoom.Verdict.ACCEPTED;
+	}
+
+	/**
+	 * Returns the points of the words accepted from the specified player so
+	 * far, without cancelling words found by other players.
+	 *
+	 * @param player
+	 *            the name of the player
+	 * @return the provisional score of the player
+	 */
+	public int getProvisionalScore(String player) {
+		LongAdder p = this.points.get(player);
+		return p == null ? 0 : p.intValue();
+	}
+
+	/**
+	 * Returns the number of distinct words accepted from all players.
+	 *
+	 * @return the number of distinct accepted words
+	 */
+	public int getWordCount() {
+		return this.finders.size();
+	}
+
+	/**
+	 * Returns a new sorted map from the name of every player with an accepted
+	 * word to the player's final score. A word scores for a player only if no
+	 * other player found it. Submissions made while this method runs may or
+	 * may not be counted.
+	 *
+	 * @return the final score of every player
+	 */
+	public Map<String, Integer> getFinalScores() {
+		Map<String, Integer> scores = new TreeMap<String, Integer>();
+		for (String player : this.points.keySet()) {
+			scores.put(player, 0);
+		}
+		for (Map.Entry<String, Set<String>> e : this.finders.entrySet()) {
+			Set<String> players = e.getValue();
+			if (players.size() == 1) {
+				for (String player : players) {
+					scores.merge(player, BoggleScorer.pointsFor(e.getKey()), Integer::sum);
+				}
+			}
+		}
+		return scores;
+	}
+}
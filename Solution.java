@@ -0,0 +1,121 @@
+package eecs2030.lab4;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.SortedMap;
+
+/**
+ * An immutable record of every legal Boggle word on a board.
+ */
+public final class Solution {
+
+	private final Board board;
+
+	private final SortedMap<String, Integer> words;
+
+	private final int score;
+
+	/**
+	 * Initializes a solution for the specified board. The map of words is not
+	 * copied, so the caller must not modify it afterwards.
+	 *
+	 * @param board
+	 *            the board that was solved
+	 * @param words
+	 *            the words on the board mapped to their scores
+	 * @param score
+	 *            the total score of the words
+	 */
+	Solution(Board board, SortedMap<String, Integer> words, int score) {
+		this.board = board;
+		this.words = Collections.unmodifiableSortedMap(words);
+		this.score = score;
+	}
+
+	/**
+	 * Returns the board that was solved.
+	 *
+	 * @return the board that was solved
+	 */
+	public Board getBoard() {
+		return this.board;
+	}
+
+	/**
+	 * Returns an unmodifiable sorted map of every legal Boggle word on the
+	 * board, mapped to the number of points each word is worth.
+	 *
+	 * @return the words on the board and their scores
+	 */
+	public SortedMap<String, Integer> getWords() {
+		return this.words;
+	}
+
+	/**
+	 * Returns the number of legal Boggle words on the board.
+	 *
+	 * @return the number of words on the board
+	 */
+	public int getWordCount() {
+		return this.words.size();
+	}
+
+	/**
+	 * Returns true if at least one word on the board begins with the specified
+	 * prefix, and false otherwise. The case of the prefix is not important.
+	 * This method takes time proportional to the logarithm of the number of
+	 * words on the board.
+	 *
+	 * @param prefix
+	 *            a prefix
+	 * @return true if a word on the board begins with the prefix
+	 */
+	public boolean hasWordStartingWith(String prefix) {
+		return !this.wordsStartingWith(prefix).isEmpty();
+	}
+
+	/**
+	 * Returns the number of words on the board that begin with the specified
+	 * prefix. The case of the prefix is not important.
+	 *
+	 * @param prefix
+	 *            a prefix
+	 * @return the number of words on the board that begin with the prefix
+	 */
+	public int countWordsStartingWith(String prefix) {
+		return this.wordsStartingWith(prefix).size();
+	}
+
+	/**
+	 * Returns a view of the words on the board that begin with the specified
+	 * prefix.
+	 *
+	 * @param prefix
+	 *            a prefix in any case
+	 * @return the words on the board that begin with the prefix
+	 */
+	private SortedMap<String, Integer> wordsStartingWith(String prefix) {
+		String p = prefix.toLowerCase(Locale.ROOT);
+		return this.words.subMap(p, p + Character.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the total number of points of every word on the board.
+	 *
+	 * @return the total score of the board
+	 */
+	public int getScore() {
+		return this.score;
+	}
+
+	/**
+	 * Returns a string representation of this solution, made up of the board,
+	 * the number of words and the total score.
+	 *
+	 * @return a string representation of this solution
+	 */
+	@Override
+	public String toString() {
+		return "[" + this.board + "] " + this.getWordCount() + " words, " + this.score + " points";
+	}
+}
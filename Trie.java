@@ -0,0 +1,572 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * A compact, immutable trie over the lower case letters <code>a</code>
+ * through <code>z</code>.
+ *
+ * <p>
+ * Implementation Details: The trie is flattened into a single array of
+ * integers with two integers per node. The first integer of a node is a bit
+ * mask whose bit <code>c</code> (for <code>c</code> between 0 and 25) is set if
+ * the node has a child for the letter <code>'a' + c</code>; bit 31 is set if
+ * the path to the node spells a word. The second integer is the index of the
+ * first child of the node. The children of a node are stored next to each other
+ * in letter order, so the index of the child for letter <code>c</code> is the
+ * index of the first child plus the number of set bits in the mask below bit
+ * <code>c</code>. Node 0 is the root.
+ *
+ * <p>
+ * Following a single letter is therefore a constant time operation, and
+ * looking up a word or a prefix takes time proportional to its length.
+ *
+ * <p>
+ * The node array can be written to a file and memory-mapped back in, so a
+ * compiled trie is loaded without parsing and its pages are shared by every
+ * process that maps the same file. A compiled file is a header of four
+ * little-endian integers (<code>MAGIC</code>, <code>VERSION</code>, the number
+ * of words and the number of nodes) followed by the node array, also in
+ * little-endian order.
+ */
+final class Trie {
+
+	/**
+	 * The node index returned when a path does not exist in the trie.
+	 */
+	static final int NONE = -1;
+
+	/**
+	 * The root node of every trie.
+	 */
+	static final int ROOT = 0;
+
+	/**
+	 * The bit of a node mask that marks the end of a word.
+	 */
+	private static final int WORD_BIT = 1 << 31;
+
+	/**
+	 * The bits of a node mask that hold the child letters.
+	 */
+	private static final int LETTER_BITS = (1 << 26) - 1;
+
+	/**
+	 * The first integer of a compiled trie file.
+	 */
+	static final int MAGIC = 0x424f4747;
+
+	/**
+	 * The version of the compiled trie file format.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * The number of bytes in the header of a compiled trie file.
+	 */
+	private static final int HEADER_BYTES = 16;
+
+	private final IntBuffer nodes;
+
+	private final int wordCount;
+
+	private Trie(IntBuffer nodes, int wordCount) {
+		this.nodes = nodes;
+		this.wordCount = wordCount;
+	}
+
+	/**
+	 * Writes this trie to the specified file in the compiled trie format,
+	 * replacing the file if it already exists. The trie is written to a new
+	 * file in the same directory, which is then atomically moved over the
+	 * specified file, so a trie mapped from the old file by
+	 * <code>map</code> stays valid, and readers never see a partly written
+	 * file.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	void write(Path file) throws IOException {
+		int nodeInts = this.nodes.limit();
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * nodeInts).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(MAGIC).putInt(VERSION).putInt(this.wordCount).putInt(nodeInts / 2);
+		for (int i = 0; i < nodeInts; i++) {
+			buffer.putInt(this.nodes.get(i));
+		}
+		buffer.flip();
+		Path dir = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Memory-maps a trie from a file written by <code>write</code>. The file
+	 * stays mapped for as long as the returned trie is reachable.
+	 *
+	 * @param file
+	 *            a compiled trie file
+	 * @return the trie stored in the file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a compiled trie file
+	 */
+	static Trie map(Path file) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a compiled dictionary");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException(file + " has unsupported version " + buffer.getInt(4));
+		}
+		int wordCount = buffer.getInt(8);
+		int nodeCount = buffer.getInt(12);
+		if (nodeCount <= 0 || buffer.limit() != HEADER_BYTES + 8L * nodeCount) {
+			throw new IOException(file + " is truncated");
+		}
+		buffer.position(HEADER_BYTES);
+		IntBuffer nodes = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		return new Trie(nodes, wordCount);
+	}
+
+	/**
+	 * Returns the number of words stored in the trie.
+	 *
+	 * @return the number of words stored in the trie
+	 */
+	int wordCount() {
+		return this.wordCount;
+	}
+
+	/**
+	 * Returns the number of nodes in the trie.
+	 *
+	 * @return the number of nodes in the trie
+	 */
+	int nodeCount() {
+		return this.nodes.limit() / 2;
+	}
+
+	/**
+	 * Returns the child of the specified node for the specified letter, or
+	 * <code>NONE</code> if there is no such child.
+	 *
+	 * @param node
+	 *            a node of this trie
+	 * @param letter
+	 *            a letter between 0 (for <code>'a'</code>) and 25 (for
+	 *            <code>'z'</code>)
+	 * @return the child node for the letter, or <code>NONE</code>
+	 */
+	int child(int node, int letter) {
+		int mask = this.nodes.get(2 * node);
+		int bit = 1 << letter;
+		if ((mask & bit) == 0) {
+			return NONE;
+		}
+		return this.nodes.get(2 * node + 1) + Integer.bitCount(mask & (bit - 1));
+	}
+
+	/**
+	 * Returns true if the path to the specified node spells a word.
+	 *
+	 * @param node
+	 *            a node of this trie
+	 * @return true if the node ends a word, and false otherwise
+	 */
+	boolean isWord(int node) {
+		return (this.nodes.get(2 * node) & WORD_BIT) != 0;
+	}
+
+	/**
+	 * Returns true if the specified node has at least one child.
+	 *
+	 * @param node
+	 *            a node of this trie
+	 * @return true if the node has a child, and false otherwise
+	 */
+	boolean hasChildren(int node) {
+		return (this.nodes.get(2 * node) & LETTER_BITS) != 0;
+	}
+
+	/**
+	 * Returns the letter number (0 for <code>'a'</code> through 25 for
+	 * <code>'z'</code>) of the specified character, ignoring case, or -1 if
+	 * the character is not a letter between <code>a</code> and <code>z</code>.
+	 *
+	 * @param c
+	 *            a character
+	 * @return the letter number of the character, or -1
+	 */
+	static int letter(char c) {
+		int letter = Character.toLowerCase(c) - 'a';
+		if (letter < 0 || letter >= 26) {
+			return -1;
+		}
+		return letter;
+	}
+
+	/**
+	 * Returns the node reached by following the characters of the specified
+	 * character sequence from the root, or <code>NONE</code> if there is no such
+	 * path. The case of the characters is not important, and nothing is
+	 * allocated.
+	 *
+	 * @param s
+	 *            a character sequence
+	 * @param start
+	 *            the index of the first character to follow
+	 * @param end
+	 *            the index after the last character to follow
+	 * @return the node spelled by the characters, or <code>NONE</code>
+	 */
+	int find(CharSequence s, int start, int end) {
+		int node = ROOT;
+		for (int i = start; i < end && node != NONE; i++) {
+			int letter = letter(s.charAt(i));
+			if (letter < 0) {
+				return NONE;
+			}
+			node = this.child(node, letter);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the node reached by following the specified characters from the
+	 * root, or <code>NONE</code> if there is no such path. The case of the
+	 * characters is not important, and nothing is allocated.
+	 *
+	 * @param chars
+	 *            an array of characters
+	 * @param offset
+	 *            the index of the first character to follow
+	 * @param length
+	 *            the number of characters to follow
+	 * @return the node spelled by the characters, or <code>NONE</code>
+	 */
+	int find(char[] chars, int offset, int length) {
+		int node = ROOT;
+		for (int i = offset; i < offset + length && node != NONE; i++) {
+			int letter = letter(chars[i]);
+			if (letter < 0) {
+				return NONE;
+			}
+			node = this.child(node, letter);
+		}
+		return node;
+	}
+
+	/**
+	 * Adds every word in the subtree rooted at the specified node to the
+	 * specified set. The words are visited in sorted order.
+	 *
+	 * @param node
+	 *            the root of the subtree
+	 * @param prefix
+	 *            the letters spelling the path to the node, in any case
+	 * @param out
+	 *            the set to add the words to
+	 */
+	void collect(int node, CharSequence prefix, SortedSet<String> out) {
+		char[] buffer = new char[prefix.length() + 16];
+		for (int i = 0; i < prefix.length(); i++) {
+			buffer[i] = (char) ('a' + letter(prefix.charAt(i)));
+		}
+		this.collect(node, buffer, prefix.length(), out);
+	}
+
+	private void collect(int node, char[] buffer, int length, SortedSet<String> out) {
+		if (this.isWord(node)) {
+			out.add(new String(buffer, 0, length));
+		}
+		int mask = this.nodes.get(2 * node) & LETTER_BITS;
+		int child = this.nodes.get(2 * node + 1);
+		if (mask != 0 && length == buffer.length) {
+			buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+		}
+		while (mask != 0) {
+			int letter = Integer.numberOfTrailingZeros(mask);
+			buffer[length] = (char) ('a' + letter);
+			this.collect(child, buffer, length + 1, out);
+			child++;
+			mask &= mask - 1;
+		}
+	}
+
+	/**
+	 * Returns an iterator over the words in the subtree rooted at the node
+	 * spelled by the specified prefix, in sorted order, starting after the
+	 * specified cursor word. The iterator walks the trie lazily, so the cost of
+	 * iterating is proportional to the number of words returned.
+	 *
+	 * @param prefix
+	 *            the prefix that every returned word starts with, in any case
+	 * @param after
+	 *            the cursor: only words that come after this word are
+	 *            returned; <code>null</code> to start with the first word
+	 * @return an iterator over the matching words
+	 */
+	Iterator<String> iterator(CharSequence prefix, CharSequence after) {
+		return new WordIterator(prefix, after);
+	}
+
+	/**
+	 * A lazy, sorted iterator over the words of a subtree.
+	 *
+	 * <p>
+	 * The iterator keeps an explicit stack with one level per letter below the
+	 * root of the subtree. Each level holds a node on the path to the last
+	 * word returned and the bit mask of that node's children that have not
+	 * been visited yet. A word comes before every longer word that starts with
+	 * it, so a node's word is returned when the node is pushed, before any of
+	 * its children are visited.
+	 */
+	private final class WordIterator implements Iterator<String> {
+
+		private final int base;
+		private char[] buffer;
+		private int[] nodes = new int[16];
+		private int[] pending = new int[16];
+		private int depth = 0;
+		private String next;
+
+		WordIterator(CharSequence prefix, CharSequence after) {
+			this.base = prefix.length();
+			this.buffer = new char[this.base + 16];
+			int node = find(prefix, 0, this.base);
+			if (node == NONE) {
+				return;
+			}
+			for (int i = 0; i < this.base; i++) {
+				this.buffer[i] = (char) ('a' + letter(prefix.charAt(i)));
+			}
+			String start = new String(this.buffer, 0, this.base);
+			if (after == null || compare(after, start) < 0) {
+				this.push(node, this.base);
+				if (isWord(node)) {
+					this.next = start;
+					return;
+				}
+			} else if (startsWith(after, start)) {
+				this.seek(node, after);
+			} else {
+				// the cursor comes after every word starting with the prefix
+				return;
+			}
+			this.advance();
+		}
+
+		/**
+		 * Positions the stack just after the specified cursor, which starts
+		 * with the prefix.
+		 */
+		private void seek(int node, CharSequence after) {
+			for (int i = this.base; i < after.length(); i++) {
+				int letter = letter(after.charAt(i));
+				if (letter < 0) {
+					throw new IllegalArgumentException("not a word: " + after);
+				}
+				this.push(node, i);
+				// only the children after the cursor's letter remain
+				this.pending[this.depth - 1] &= ~((2 << letter) - 1);
+				node = child(node, letter);
+				if (node == NONE) {
+					return;
+				}
+				this.buffer[i] = (char) ('a' + letter);
+			}
+			// every word below the cursor's own node comes after the cursor
+			this.push(node, after.length());
+		}
+
+		/**
+		 * Pushes a node whose path is <code>length</code> letters long.
+		 */
+		private void push(int node, int length) {
+			if (this.depth == this.nodes.length) {
+				this.nodes = Arrays.copyOf(this.nodes, 2 * this.depth);
+				this.pending = Arrays.copyOf(this.pending, 2 * this.depth);
+			}
+			if (length == this.buffer.length) {
+				this.buffer = Arrays.copyOf(this.buffer, 2 * length);
+			}
+			this.nodes[this.depth] = node;
+			this.pending[this.depth] = Trie.this.nodes.get(2 * node) & LETTER_BITS;
+			this.depth++;
+		}
+
+		/**
+		 * Moves to the next word in sorted order, or sets next to null if there
+		 * are no more words.
+		 */
+		private void advance() {
+			while (this.depth > 0) {
+				int top = this.depth - 1;
+				int mask = this.pending[top];
+				if (mask == 0) {
+					this.depth--;
+					continue;
+				}
+				int letter = Integer.numberOfTrailingZeros(mask);
+				this.pending[top] = mask & (mask - 1);
+				int length = this.base + top;
+				this.buffer[length] = (char) ('a' + letter);
+				int node = child(this.nodes[top], letter);
+				this.push(node, length + 1);
+				if (isWord(node)) {
+					this.next = new String(this.buffer, 0, length + 1);
+					return;
+				}
+			}
+			this.next = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next != null;
+		}
+
+		@Override
+		public String next() {
+			if (this.next == null) {
+				throw new NoSuchElementException();
+			}
+			String word = this.next;
+			this.advance();
+			return word;
+		}
+	}
+
+	/**
+	 * Compares a character sequence, ignoring case, with a lower case string.
+	 */
+	private static int compare(CharSequence s, String lower) {
+		int n = Math.min(s.length(), lower.length());
+		for (int i = 0; i < n; i++) {
+			int c = Character.toLowerCase(s.charAt(i)) - lower.charAt(i);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return s.length() - lower.length();
+	}
+
+	/**
+	 * Returns true if a character sequence starts with a lower case string,
+	 * ignoring case.
+	 */
+	private static boolean startsWith(CharSequence s, String lower) {
+		return s.length() >= lower.length() && compare(s.subSequence(0, lower.length()), lower) == 0;
+	}
+
+	/**
+	 * Builds a trie from a sequence of words. Words may be added in any order;
+	 * duplicate words are stored once.
+	 */
+	static final class Builder {
+
+		/**
+		 * A node of the pointer-based trie that is flattened by
+		 * <code>build</code>.
+		 */
+		private static final class Node {
+			private Node[] children = new Node[26];
+			private boolean isWord;
+		}
+
+		private Node root = new Node();
+
+		private int nodeCount = 1;
+
+		private int wordCount = 0;
+
+		/**
+		 * Adds a word to the trie. Words containing characters other than the
+		 * lower case letters <code>a</code> through <code>z</code> cannot be
+		 * formed on a Boggle board and are ignored.
+		 *
+		 * @param word
+		 *            a lower case word
+		 * @return true if the word was added, and false if it was ignored or
+		 *         already present
+		 */
+		boolean add(String word) {
+			for (int i = 0; i < word.length(); i++) {
+				char c = word.charAt(i);
+				if (c < 'a' || c > 'z') {
+					return false;
+				}
+			}
+			Node node = this.root;
+			for (int i = 0; i < word.length(); i++) {
+				int letter = word.charAt(i) - 'a';
+				if (node.children[letter] == null) {
+					node.children[letter] = new Node();
+					this.nodeCount++;
+				}
+				node = node.children[letter];
+			}
+			if (node.isWord) {
+				return false;
+			}
+			node.isWord = true;
+			this.wordCount++;
+			return true;
+		}
+
+		/**
+		 * Flattens the words added so far into a trie.
+		 *
+		 * @return a trie containing every word added to this builder
+		 */
+		Trie build() {
+			int[] nodes = new int[2 * this.nodeCount];
+			Node[] queue = new Node[this.nodeCount];
+			queue[0] = this.root;
+			int tail = 1;
+			for (int head = 0; head < tail; head++) {
+				Node node = queue[head];
+				int mask = node.isWord ? WORD_BIT : 0;
+				nodes[2 * head + 1] = tail;
+				for (int letter = 0; letter < 26; letter++) {
+					Node child = node.children[letter];
+					if (child != null) {
+						mask |= 1 << letter;
+						queue[tail] = child;
+						tail++;
+					}
+				}
+				nodes[2 * head] = mask;
+			}
+			return new Trie(IntBuffer.wrap(nodes), this.wordCount);
+		}
+	}
+}
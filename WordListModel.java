@@ -0,0 +1,184 @@
+package eecs2030.lab4;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.swing.AbstractListModel;
+
+/**
+ * A list model of distinct words for a <code>JList</code>, kept sorted either
+ * alphabetically or by score.
+ *
+ * <p>
+ * Implementation Details: The words are kept in a sorted array list, so a
+ * word is inserted at the position found by a binary search and only the
+ * inserted row is reported to the list. A batch of words is sorted once and
+ * reported to the list with a single event. Together with a
+ * <code>JList</code> whose cells have a fixed size, only the rows that are
+ * visible are ever laid out and painted, so the cost of showing a word does
+ * not grow with the length of the list. Words are compared without regard
+ * to case when checking for duplicates. The model is used only on the Swing
+ * event dispatch thread.
+ */
+public class WordListModel extends AbstractListModel<String> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The orders in which the words can be listed.
+	 */
+	public enum Order {
+		/**
+		 * Alphabetical order.
+		 */
+		ALPHABETICAL(String.CASE_INSENSITIVE_ORDER),
+
+		/**
+		 * From the words worth the most points to the words worth the least,
+		 * and alphabetically among words worth the same number of points.
+		 */
+		SCORE(Comparator.comparingInt((String w) -> -BoggleScorer.pointsFor(w))
+				.thenComparing(String.CASE_INSENSITIVE_ORDER));
+
+		private final Comparator<String> comparator;
+
+		private Order(Comparator<String> comparator) {
+			this.comparator = comparator;
+		}
+	}
+
+	private final List<String> words = new ArrayList<String>();
+
+	/**
+	 * The words in the list, in lower case.
+	 */
+	private final Set<String> seen = new HashSet<String>();
+
+	private Order order = Order.ALPHABETICAL;
+
+	/**
+	 * Returns the number of words in the list.
+	 *
+	 * @return the number of words in the list
+	 */
+	@Override
+	public int getSize() {
+		return this.words.size();
+	}
+
+	/**
+	 * Returns the word at the specified position in the list.
+	 *
+	 * @param index
+	 *            a position in the list
+	 * @return the word at the position
+	 */
+	@Override
+	public String getElementAt(int index) {
+		return this.words.get(index);
+	}
+
+	/**
+	 * Returns true if the list holds the specified word, in any case.
+	 *
+	 * @param word
+	 *            a word
+	 * @return true if the list holds the word
+	 */
+	public boolean contains(String word) {
+		return this.seen.contains(word.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Adds the specified word to the list in sorted position, unless the list
+	 * already holds the word.
+	 *
+	 * @param word
+	 *            a word
+	 * @return true if the word was added
+	 */
+	public boolean add(String word) {
+		if (!this.seen.add(word.toLowerCase(Locale.ROOT))) {
+			return false;
+		}
+		int index = Collections.binarySearch(this.words, word, this.order.comparator);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		this.words.add(index, word);
+		this.fireIntervalAdded(this, index, index);
+		return true;
+	}
+
+	/**
+	 * Adds every specified word that the list does not already hold, and
+	 * notifies the list once.
+	 *
+	 * @param batch
+	 *            the words to add
+	 * @return the number of words added
+	 */
+	public int addAll(Collection<String> batch) {
+		int before = this.words.size();
+		for (String w : batch) {
+			if (this.seen.add(w.toLowerCase(Locale.ROOT))) {
+				this.words.add(w);
+			}
+		}
+		int after = this.words.size();
+		if (after == before) {
+			return 0;
+		}
+		this.words.sort(this.order.comparator);
+		if (before > 0) {
+			this.fireContentsChanged(this, 0, before - 1);
+		}
+		this.fireIntervalAdded(this, before, after - 1);
+		return after - before;
+	}
+
+	/**
+	 * Returns the order in which the words are listed.
+	 *
+	 * @return the order of the words
+	 */
+	public Order getOrder() {
+		return this.order;
+	}
+
+	/**
+	 * Sets the order in which the words are listed, and sorts the list.
+	 *
+	 * @param order
+	 *            the order of the words
+	 */
+	public void setOrder(Order order) {
+		if (order == this.order) {
+			return;
+		}
+		this.order = order;
+		this.words.sort(order.comparator);
+		if (!this.words.isEmpty()) {
+			this.fireContentsChanged(this, 0, this.words.size() - 1);
+		}
+	}
+
+	/**
+	 * Removes every word from the list.
+	 */
+	public void clear() {
+		int size = this.words.size();
+		if (size == 0) {
+			return;
+		}
+		this.words.clear();
+		this.seen.clear();
+		this.fireIntervalRemoved(this, 0, size - 1);
+	}
+}
@@ -0,0 +1,110 @@
+package eecs2030.lab4;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the <code>Dictionary</code>: building it from the default
+ * word list, mapping it from a compiled file, looking words up, and listing
+ * the words starting with a prefix.
+ *
+ * <p>
+ * The lookups are an even mix of dictionary words and near misses (a word
+ * with its last letter replaced), and the prefixes are the first one to three
+ * letters of dictionary words, all drawn with a fixed seed and used
+ * round-robin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DictionaryBench {
+
+	/**
+	 * The number of distinct inputs of each kind; a power of two.
+	 */
+	static final int INPUTS = 4096;
+
+	static final long SEED = 2030;
+
+	private Dictionary dictionary;
+	private Path compiled;
+	private String[] lookups;
+	private String[] prefixes;
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.dictionary = DictionaryRegistry.getDefault();
+		this.compiled = Files.createTempFile("boggle", ".dict");
+		this.dictionary.trie().write(this.compiled);
+		String[] words = this.dictionary.wordsStartingWith("").toArray(new String[0]);
+		SplittableRandom rng = new SplittableRandom(SEED);
+		this.lookups = new String[INPUTS];
+		this.prefixes = new String[INPUTS];
+		for (int i = 0; i < INPUTS; i++) {
+			String w = words[rng.nextInt(words.length)];
+			if (i % 2 == 0) {
+				this.lookups[i] = w;
+			} else {
+				this.lookups[i] = w.substring(0, w.length() - 1) + (char) ('a' + rng.nextInt(26));
+			}
+			this.prefixes[i] = w.substring(0, Math.min(w.length(), 1 + rng.nextInt(3)));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 5)
+	@Measurement(iterations = 10)
+	public Dictionary construct() {
+		return new Dictionary();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(this.compiled);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 5)
+	@Measurement(iterations = 10)
+	public Dictionary map() throws IOException {
+		return Dictionary.map(this.compiled);
+	}
+
+	@Benchmark
+	public boolean lookUp() {
+		return this.dictionary.lookUp(this.lookups[this.next++ & (INPUTS - 1)]);
+	}
+
+	@Benchmark
+	public boolean isPrefix() {
+		return this.dictionary.isPrefix(this.prefixes[this.next++ & (INPUTS - 1)]);
+	}
+
+	@Benchmark
+	public int wordsStartingWith() {
+		return this.dictionary.wordsStartingWith(this.prefixes[this.next++ & (INPUTS - 1)]).size();
+	}
+}
@@ -0,0 +1,91 @@
+package eecs2030.lab4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of a game of Boggle: rolling a die, shuffling and rolling
+ * the dice of a board, copying the dice, taking a snapshot of the board, and
+ * checking submitted words, for every board size.
+ *
+ * <p>
+ * The game is rolled once with a fixed seed before the words are checked, and
+ * the submissions are an even mix of words on its board and dictionary words
+ * that are not, in upper case as they are typed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GameBench {
+
+	@Param({ "CLASSIC", "BIG", "SUPER_BIG" })
+	private BoardSize size;
+
+	private Die die;
+	private Boggle boggle;
+	private String[] submissions;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Dictionary dictionary = DictionaryRegistry.getDefault();
+		String[] words = dictionary.wordsStartingWith("").toArray(new String[0]);
+		SplittableRandom rng = new SplittableRandom(DictionaryBench.SEED);
+		this.die = new Die(this.size.letters()[0]);
+		this.boggle = new Boggle(() -> dictionary, this.size, rng.split());
+		this.boggle.shuffleAndRoll();
+		List<String> onBoard = new ArrayList<String>(this.boggle.getAllWords().keySet());
+		this.submissions = new String[DictionaryBench.INPUTS];
+		for (int i = 0; i < this.submissions.length; i++) {
+			if (i % 2 == 0 && !onBoard.isEmpty()) {
+				this.submissions[i] = onBoard.get(rng.nextInt(onBoard.size())).toUpperCase(Locale.ROOT);
+			} else {
+				this.submissions[i] = words[rng.nextInt(words.length)].toUpperCase(Locale.ROOT);
+			}
+		}
+	}
+
+	@Benchmark
+	public String dieRoll() {
+		return this.die.roll();
+	}
+
+	@Benchmark
+	public boolean isABoggleWord() {
+		return this.boggle.isABoggleWord(this.submissions[this.next++ & (DictionaryBench.INPUTS - 1)]);
+	}
+
+	@Benchmark
+	public List<Die> getDice() {
+		return this.boggle.getDice();
+	}
+
+	@Benchmark
+	public Board getBoard() {
+		return this.boggle.getBoard();
+	}
+
+	@Benchmark
+	public Board shuffleAndRoll() {
+		this.boggle.shuffleAndRoll();
+		return this.boggle.getBoard();
+	}
+}
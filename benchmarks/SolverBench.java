@@ -0,0 +1,76 @@
+package eecs2030.lab4;
+
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of dealing and solving whole boards, for every board size:
+ * rolling a board, listing every word on a board with its score, and only
+ * counting the words.
+ *
+ * <p>
+ * The boards are rolled with the standard dice of the board size using a
+ * fixed seed, so they follow the distribution of boards dealt in a game, and
+ * are solved round-robin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SolverBench {
+
+	/**
+	 * The number of distinct boards; a power of two.
+	 */
+	private static final int BOARDS = 1024;
+
+	@Param({ "CLASSIC", "BIG", "SUPER_BIG" })
+	private BoardSize size;
+
+	private BoggleSolver solver;
+	private BoardGenerator generator;
+	private SplittableRandom rng;
+	private Board[] boards;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		this.solver = new BoggleSolver(DictionaryRegistry.getDefault());
+		this.generator = new BoardGenerator(this.size);
+		this.rng = new SplittableRandom(DictionaryBench.SEED);
+		this.boards = new Board[BOARDS];
+		for (int i = 0; i < BOARDS; i++) {
+			this.boards[i] = this.generator.roll(this.rng);
+		}
+	}
+
+	@Benchmark
+	public Board roll() {
+		return this.generator.roll(this.rng);
+	}
+
+	@Benchmark
+	public SortedMap<String, Integer> solve() {
+		return this.solver.solve(this.boards[this.next++ & (BOARDS - 1)]);
+	}
+
+	@Benchmark
+	public int count() {
+		return this.solver.count(this.boards[this.next++ & (BOARDS - 1)]);
+	}
+}
@@ -0,0 +1,48 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardPoolTest {
+
+	/**
+	 * Waits until the specified pool has a board, or a few seconds have
+	 * passed.
+	 *
+	 * @return a board of the pool, or null
+	 */
+	private static Solution await(BoardPool pool) throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			Solution s = pool.poll();
+			if (s != null) {
+				return s;
+			}
+			Thread.sleep(10);
+		}
+		return null;
+	}
+
+	@Test
+	public void newFilterReplacesOldBoards() throws InterruptedException {
+		Dictionary empty = Dictionary.read(new ByteArrayInputStream(new byte[0]));
+		Dictionary words = DictionaryRegistry.getDefault();
+		BoardPool pool = new BoardPool(new BoardFilter.Builder(empty).build(), 8);
+		try {
+			assertNotNull(await(pool));
+			pool.setFilter(new BoardFilter.Builder(words).build());
+			BoggleSolver solver = new BoggleSolver(words);
+			// every board dealt from now on was solved with the new dictionary
+			for (int i = 0; i < 20; i++) {
+				Solution s = await(pool);
+				assertNotNull(s);
+				assertEquals(solver.solution(s.getBoard()).getWords(), s.getWords());
+			}
+		} finally {
+			pool.close();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the work the controller does on its background thread. The
+ * controller has no view, so only the results are checked, not how they are
+ * shown.
+ */
+public class BoggleControllerTest {
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Returns a controller with no view playing the specified game.
+	 */
+	private static BoggleController controller(Boggle boggle) {
+		BoggleController c = new BoggleController();
+		c.setModel(boggle);
+		return c;
+	}
+
+	private static Boggle game() {
+		return new Boggle(DictionaryRegistry.getDefault(), 2030);
+	}
+
+	@Test
+	public void logged() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		Boggle boggle = game();
+		BoggleController c = controller(boggle);
+		try (GameLog log = GameLog.open(file)) {
+			c.setLog(log);
+			BoggleController.Outcome<Solution> rolled = c.rollModel(boggle);
+			assertNull(rolled.logFailure);
+			String word = rolled.result.getWords().firstKey();
+			BoggleController.Outcome<GameRoom.Verdict> checked = c.check(word);
+			assertEquals(GameRoom.Verdict.ACCEPTED, checked.result);
+			assertNull(checked.logFailure);
+		}
+		int[] counts = new int[2];
+		GameLog.read(file, new GameLog.Visitor() {
+			@Override
+			public void round(long micros, int round, String room, Board board) {
+				counts[0]++;
+			}
+
+			@Override
+			public void word(long micros, int round, String player, String word, GameRoom.Verdict verdict) {
+				counts[1]++;
+			}
+		});
+		assertEquals(1, counts[0]);
+		assertEquals(1, counts[1]);
+	}
+
+	@Test
+	public void roundNotLogged() throws IOException {
+		Boggle boggle = game();
+		BoggleController c = controller(boggle);
+		GameLog log = GameLog.open(this.dir.resolve("game.log"));
+		log.close();
+		c.setLog(log);
+		BoggleController.Outcome<Solution> rolled = c.rollModel(boggle);
+		// the board is rolled and played even though it cannot be logged
+		assertNotNull(rolled.logFailure);
+		assertEquals(boggle.getSolution().getWords(), rolled.result.getWords());
+		String word = rolled.result.getWords().firstKey();
+		BoggleController.Outcome<GameRoom.Verdict> checked = c.check(word);
+		assertEquals(GameRoom.Verdict.ACCEPTED, checked.result);
+		assertNull(checked.logFailure);
+	}
+
+	@Test
+	public void wordNotLogged() throws IOException {
+		Boggle boggle = game();
+		BoggleController c = controller(boggle);
+		GameLog log = GameLog.open(this.dir.resolve("game.log"));
+		c.setLog(log);
+		BoggleController.Outcome<Solution> rolled = c.rollModel(boggle);
+		assertNull(rolled.logFailure);
+		log.close();
+		Iterator<String> words = rolled.result.getWords().keySet().iterator();
+		// the verdict is reached even though the word cannot be logged
+		BoggleController.Outcome<GameRoom.Verdict> first = c.check(words.next());
+		assertEquals(GameRoom.Verdict.ACCEPTED, first.result);
+		assertNotNull(first.logFailure);
+		// the failure is reported once, and the rest of the round is unlogged
+		BoggleController.Outcome<GameRoom.Verdict> second = c.check(words.next());
+		assertEquals(GameRoom.Verdict.ACCEPTED, second.result);
+		assertNull(second.logFailure);
+	}
+
+	@Test
+	public void rollNotSolved() {
+		AtomicBoolean broken = new AtomicBoolean();
+		Boggle boggle = new Boggle(() -> {
+			if (broken.get()) {
+				throw new IllegalStateException("no dictionary");
+			}
+			return DictionaryRegistry.getDefault();
+		}, new SplittableRandom(2030));
+		BoggleController c = controller(boggle);
+		BoggleController.Outcome<Solution> rolled = c.rollModel(boggle);
+		Board board = boggle.getBoard();
+		String dice = boggle.getDice().toString();
+		broken.set(true);
+		assertThrows(IllegalStateException.class, () -> c.rollModel(boggle));
+		// the previous board stays in play
+		assertSame(board, boggle.getBoard());
+		assertEquals(dice, boggle.getDice().toString());
+		broken.set(false);
+		String word = rolled.result.getWords().firstKey();
+		assertEquals(GameRoom.Verdict.ACCEPTED, c.check(word).result);
+	}
+}
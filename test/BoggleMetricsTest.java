@@ -0,0 +1,62 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+public class BoggleMetricsTest {
+
+	@Test
+	public void exporterFailureLogged() throws InterruptedException {
+		Logger logger = Logger.getLogger(BoggleMetrics.class.getName());
+		List<LogRecord> records = new CopyOnWriteArrayList<LogRecord>();
+		Handler handler = new Handler() {
+			@Override
+			public void publish(LogRecord record) {
+				records.add(record);
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		Level level = logger.getLevel();
+		logger.setLevel(Level.ALL);
+		logger.addHandler(handler);
+		AtomicInteger calls = new AtomicInteger();
+		ScheduledFuture<?> export = BoggleMetrics.get().export(metrics -> {
+			calls.incrementAndGet();
+			throw new IllegalStateException("the monitoring system is down");
+		}, 5);
+		try {
+			for (int i = 0; i < 400 && records.size() < 3; i++) {
+				Thread.sleep(5);
+			}
+		} finally {
+			export.cancel(false);
+			logger.removeHandler(handler);
+			logger.setLevel(level);
+		}
+		// the exporter is called again, and only the first failure is a
+		// warning
+		assertTrue(records.size() >= 3);
+		assertTrue(calls.get() >= 3);
+		assertEquals(Level.WARNING, records.get(0).getLevel());
+		assertEquals(Level.FINE, records.get(1).getLevel());
+		assertTrue(records.get(0).getThrown() instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,154 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the protocol of the server over a loopback connection.
+ */
+public class BoggleServerTest {
+
+	@TempDir
+	Path dir;
+
+	private BoggleServer server;
+	private ServerSocket socket;
+
+	/**
+	 * A connection to the server.
+	 */
+	private static final class Client implements AutoCloseable {
+
+		private final Socket socket;
+		private final BufferedReader in;
+		private final PrintWriter out;
+
+		Client(int port) throws IOException {
+			this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+			this.out = new PrintWriter(this.socket.getOutputStream(), true, StandardCharsets.UTF_8);
+		}
+
+		String send(String command) throws IOException {
+			this.out.println(command);
+			return this.in.readLine();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.socket.close();
+		}
+	}
+
+	@BeforeEach
+	public void start() throws IOException {
+		this.server = new BoggleServer(DictionaryRegistry::getDefault, 60000);
+		this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread t = new Thread(() -> {
+			try {
+				this.server.serve(this.socket);
+			} catch (IOException e) {
+				// the socket was closed
+			}
+		});
+		t.setDaemon(true);
+		t.start();
+	}
+
+	@AfterEach
+	public void stop() throws IOException {
+		this.socket.close();
+	}
+
+	/**
+	 * Returns the words on the board of the current round of the specified
+	 * room.
+	 */
+	private List<String> wordsOnBoard(String room) {
+		GameRoom.Round round = this.server.room(room).currentRound();
+		Solution solution = new BoggleSolver(DictionaryRegistry.getDefault()).solution(round.getBoard());
+		return new ArrayList<String>(solution.getWords().keySet());
+	}
+
+	/**
+	 * Returns a word on the board of the current round of the specified room.
+	 */
+	private String wordOnBoard(String room) {
+		return this.wordsOnBoard(room).get(0);
+	}
+
+	@Test
+	public void logFailure() throws IOException {
+		GameLog log = GameLog.open(this.dir.resolve("game.log"));
+		log.close();
+		this.server.setLog(log);
+		try (Client c = new Client(this.socket.getLocalPort())) {
+			// the round is played even though it cannot be logged
+			assertTrue(c.send("JOIN room alice").startsWith("ROUND 1 "));
+			String word = this.wordOnBoard("room");
+			assertEquals("ACCEPTED " + word, c.send("WORD " + word));
+			String upper = word.toUpperCase(Locale.ROOT);
+			assertEquals("DUPLICATE " + upper, c.send("WORD " + upper));
+		}
+	}
+
+	@Test
+	public void wordLogFailure() throws IOException {
+		GameLog log = GameLog.open(this.dir.resolve("game.log"));
+		this.server.setLog(log);
+		try (Client c = new Client(this.socket.getLocalPort())) {
+			assertTrue(c.send("JOIN room alice").startsWith("ROUND 1 "));
+			log.close();
+			// the word is scored, so its verdict is sent even though it cannot
+			// be logged
+			String word = this.wordOnBoard("room");
+			assertEquals("ACCEPTED " + word, c.send("WORD " + word));
+			assertTrue(c.send("SCORE").matches("SCORE [1-9][0-9]*"));
+		}
+	}
+
+	@Test
+	public void results() throws IOException {
+		try (Client alice = new Client(this.socket.getLocalPort());
+				Client bob = new Client(this.socket.getLocalPort())) {
+			assertTrue(alice.send("JOIN room alice").startsWith("ROUND 1 "));
+			assertTrue(bob.send("JOIN room {bob}").startsWith("ROUND 1 "));
+			List<String> words = this.wordsOnBoard("room");
+			assumeTrue(words.size() >= 2, "fewer than two words on the board");
+			String shared = words.get(0);
+			String own = words.get(1);
+			assertEquals("ACCEPTED " + shared, alice.send("WORD " + shared));
+			assertEquals("ACCEPTED " + shared, bob.send("WORD " + shared));
+			assertEquals("ACCEPTED " + own, alice.send("WORD " + own));
+			assertEquals("RESULTS alice=" + BoggleScorer.pointsFor(own) + ",{bob}=0", bob.send("RESULTS"));
+		}
+	}
+
+	@Test
+	public void separatorsInNames() throws IOException {
+		try (Client c = new Client(this.socket.getLocalPort())) {
+			assertTrue(c.send("JOIN room a,b").startsWith("ERROR "));
+			assertTrue(c.send("JOIN room a=b").startsWith("ERROR "));
+			assertTrue(c.send("JOIN room ab").startsWith("ROUND "));
+		}
+	}
+}
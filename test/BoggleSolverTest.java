@@ -0,0 +1,81 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+public class BoggleSolverTest {
+
+	/**
+	 * A board whose top two rows are
+	 *
+	 * <pre>
+	 * C  A T S
+	 * QU I T E
+	 * </pre>
+	 *
+	 * and whose other dice are all <code>X</code>.
+	 */
+	static Board board() {
+		String[] faces = { "C", "A", "T", "S", "QU", "I", "T", "E", "X", "X", "X", "X", "X", "X", "X", "X" };
+		byte[] codes = new byte[faces.length];
+		for (int i = 0; i < faces.length; i++) {
+			codes[i] = Board.encode(faces[i]);
+		}
+		return new Board(codes);
+	}
+
+	static Dictionary dictionary() {
+		String words = "it cat cats quit quite quiet qit tiq tic ticc tat sat xxxx";
+		return Dictionary.read(new ByteArrayInputStream(words.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	@Test
+	public void knownBoard() {
+		Map<String, Integer> expected = new TreeMap<String, Integer>();
+		for (String w : new String[] { "cat", "cats", "quit", "quite", "tat", "tic", "xxxx" }) {
+			expected.put(w, BoggleScorer.pointsFor(w));
+		}
+		BoggleSolver solver = new BoggleSolver(dictionary());
+		Solution solution = solver.solution(board());
+		assertEquals(expected, solution.getWords());
+		int score = 0;
+		for (int points : expected.values()) {
+			score += points;
+		}
+		assertEquals(score, solution.getScore());
+		assertEquals(expected.size(), solver.count(board()));
+		assertEquals(score, solver.getScore());
+	}
+
+	@Test
+	public void agreesWithBoggle() {
+		// every word found by the solver can be traced by the game, and the
+		// solver finds every word of the dictionary the game accepts
+		Dictionary dictionary = DictionaryRegistry.getDefault();
+		Boggle boggle = new Boggle(dictionary, 2030);
+		BoggleSolver solver = new BoggleSolver(dictionary);
+		BoardGenerator generator = new BoardGenerator();
+		SplittableRandom rng = new SplittableRandom(2030);
+		byte[] codes = new byte[generator.size()];
+		for (int i = 0; i < 5; i++) {
+			generator.roll(rng, codes);
+			Board board = new Board(codes.clone());
+			SortedMap<String, Integer> words = solver.solve(board);
+			for (String w : words.keySet()) {
+				assertTrue(boggle.isABoggleWord(w, board), w + " on " + board);
+			}
+			long found = dictionary.streamWordsStartingWith("", null).filter(w -> boggle.isABoggleWord(w, board))
+					.count();
+			assertEquals(words.size(), found);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests tracing words on the board of <code>BoggleSolverTest.board()</code>,
+ * which has a <code>"QU"</code> die.
+ */
+public class BoggleTest {
+
+	private final Boggle boggle = new Boggle(BoggleSolverTest.dictionary(), 2030);
+
+	private final Board board = BoggleSolverTest.board();
+
+	@Test
+	public void quFace() {
+		assertTrue(this.boggle.isABoggleWord("quit", this.board));
+		assertTrue(this.boggle.isABoggleWord("QUITE", this.board));
+		assertTrue(this.boggle.isABoggleWord("qUiT", this.board));
+		// the QU die cannot stand for a bare q
+		assertFalse(this.boggle.isABoggleWord("qit", this.board));
+		assertFalse(this.boggle.isABoggleWord("tiq", this.board));
+		// the e is not next to the i
+		assertFalse(this.boggle.isABoggleWord("quiet", this.board));
+	}
+
+	@Test
+	public void otherWords() {
+		assertTrue(this.boggle.isABoggleWord("tat", this.board));
+		assertTrue(this.boggle.isABoggleWord("tic", this.board));
+		// too short, on the board but not in the dictionary, used a die twice,
+		// and not connected
+		assertFalse(this.boggle.isABoggleWord("it", this.board));
+		assertFalse(this.boggle.isABoggleWord("cit", this.board));
+		assertFalse(this.boggle.isABoggleWord("ticc", this.board));
+		assertFalse(this.boggle.isABoggleWord("sat", this.board));
+	}
+}
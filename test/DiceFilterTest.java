@@ -0,0 +1,68 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class DiceFilterTest {
+
+	@Test
+	public void classicDice() {
+		DiceFilter filter = new DiceFilter(BoardSize.CLASSIC);
+		assertTrue(filter.test("queen"));
+		assertTrue(filter.test("quiz"));
+		// no die shows a bare q
+		assertFalse(filter.test("qat"));
+		// only one die has a z
+		assertFalse(filter.test("pizza"));
+		// more faces than dice
+		assertFalse(filter.test("e".repeat(17)));
+		assertEquals(2, filter.getKeptCount());
+		assertEquals(3, filter.getPrunedCount());
+	}
+
+	@Test
+	public void sharedLetters() {
+		// the a of "ab" must move to the second die to free the first for b
+		DiceFilter filter = new DiceFilter(new String[][] { { "A", "B" }, { "A" } });
+		assertTrue(filter.test("ab"));
+		assertTrue(filter.test("ba"));
+		assertTrue(filter.test("aa"));
+		assertFalse(filter.test("bb"));
+		assertFalse(filter.test("aaa"));
+		// the faces of a rejected word are not left behind for the next one
+		assertTrue(filter.test("ab"));
+	}
+
+	@Test
+	public void notLetters() {
+		DiceFilter filter = new DiceFilter(BoardSize.CLASSIC);
+		assertFalse(filter.test("it's"));
+		assertFalse(filter.test("e".repeat(17) + "-"));
+		assertEquals(0, filter.getKeptCount() + filter.getPrunedCount());
+	}
+
+	@Test
+	public void prunedDefaultDictionary() {
+		Dictionary all = DictionaryRegistry.getDefault();
+		Dictionary pruned = DictionaryRegistry.getDefault(BoardSize.CLASSIC);
+		assertTrue(pruned.size() < all.size());
+		assertFalse(pruned.lookUp("pizza"));
+		assertTrue(pruned.lookUp("queen"));
+		// the boards have the same words with either dictionary
+		BoardGenerator generator = new BoardGenerator();
+		BoggleSolver allSolver = new BoggleSolver(all);
+		BoggleSolver prunedSolver = new BoggleSolver(pruned);
+		SplittableRandom rng = new SplittableRandom(2030);
+		byte[] codes = new byte[generator.size()];
+		for (int i = 0; i < 200; i++) {
+			generator.roll(rng, codes);
+			Board board = new Board(codes);
+			assertEquals(allSolver.solve(board), prunedSolver.solve(board));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DictionaryLoaderTest {
+
+	/**
+	 * The number of milliseconds between checks of a watched file.
+	 */
+	private static final long PERIOD = 20;
+
+	@TempDir
+	Path dir;
+
+	private static Dictionary words(String words) {
+		return Dictionary.read(new ByteArrayInputStream(words.getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	/**
+	 * Waits until the specified loader has a dictionary that contains the
+	 * specified word, or a few seconds have passed.
+	 *
+	 * @return true if the loader has a dictionary with the word
+	 */
+	private static boolean awaitWord(DictionaryLoader loader, String word) throws InterruptedException {
+		for (int i = 0; i < 250; i++) {
+			if (loader.get().lookUp(word)) {
+				return true;
+			}
+			Thread.sleep(PERIOD);
+		}
+		return false;
+	}
+
+	@Test
+	public void reloadsAChangedFile() throws Exception {
+		Path file = this.dir.resolve("words.txt");
+		Files.writeString(file, "cat\n");
+		try (DictionaryLoader loader = new DictionaryLoader(words("cat"))) {
+			loader.watch(file, PERIOD);
+			Files.writeString(file, "cat\ndog\n");
+			assertTrue(awaitWord(loader, "dog"));
+		}
+	}
+
+	@Test
+	public void retriesAFailedLoad() throws Exception {
+		Path file = this.dir.resolve("words.bin");
+		Files.writeString(file, "cat\n");
+		Dictionary initial = words("cat");
+		try (DictionaryLoader loader = new DictionaryLoader(initial)) {
+			loader.watch(file, PERIOD);
+			// a compiled dictionary that is cut short cannot be loaded
+			byte[] broken = new byte[64];
+			ByteBuffer.wrap(broken).order(ByteOrder.LITTLE_ENDIAN).putInt(Trie.MAGIC);
+			Files.write(file, broken);
+			FileTime modified = Files.getLastModifiedTime(file);
+			Thread.sleep(10 * PERIOD);
+			assertSame(initial, loader.get());
+			// the same modification time and size, but a word list that loads
+			byte[] fixed = new byte[broken.length];
+			Arrays.fill(fixed, (byte) '\n');
+			System.arraycopy("cat\ndog\n".getBytes(StandardCharsets.US_ASCII), 0, fixed, 0, 8);
+			Files.write(file, fixed);
+			Files.setLastModifiedTime(file, modified);
+			assertTrue(awaitWord(loader, "dog"));
+		}
+	}
+
+	@Test
+	public void waitsForAGrowingFile() throws Exception {
+		Path file = this.dir.resolve("words.txt");
+		Files.writeString(file, "cat\n");
+		try (DictionaryLoader loader = new DictionaryLoader(words("cat"))) {
+			loader.watch(file, 10 * PERIOD);
+			// a file that changes at every check is never loaded
+			for (int i = 0; i < 8; i++) {
+				Files.writeString(file, "cat\n" + "dog\n".repeat(i + 1));
+				Thread.sleep(4 * PERIOD);
+			}
+			assertFalse(loader.get().lookUp("dog"));
+			assertTrue(awaitWord(loader, "dog"));
+		}
+	}
+
+	@Test
+	public void listenersSeeNewDictionaries() throws Exception {
+		try (DictionaryLoader loader = new DictionaryLoader(words("cat"))) {
+			List<Dictionary> seen = new CopyOnWriteArrayList<Dictionary>();
+			loader.addListener(seen::add);
+			loader.addListener(d -> {
+				throw new IllegalStateException("a failing listener");
+			});
+			Dictionary d = loader.reload(() -> words("dog")).get(5, TimeUnit.SECONDS);
+			assertSame(d, loader.get());
+			assertEquals(List.of(d), seen);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package eecs2030.lab4;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A command-line check that a <code>GameLog</code> survives a crash. A
+ * session is written to a log, the end of the log is cut off to simulate a
+ * crash in the middle of a write, the log is opened again and a second
+ * session is written, and then the whole log is read back. The check is
+ * repeated for every cut of up to 64 bytes.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes eecs2030.lab4.GameLogCheck
+ * </pre>
+ *
+ * <p>
+ * The check prints the number of cuts tried, and exits with status 1 if the
+ * second session of any log cannot be read back in full.
+ */
+public class GameLogCheck {
+
+	/**
+	 * The number of words logged in every round.
+	 */
+	private static final int WORDS = 10;
+
+	/**
+	 * Counts the sessions of a log, and the records of its last session.
+	 */
+	private static final class Counter implements GameLog.Visitor {
+
+		private int sessions;
+		private int rounds;
+		private int words;
+
+		@Override
+		public void open(long micros) {
+			this.sessions++;
+			this.rounds = 0;
+			this.words = 0;
+		}
+
+		@Override
+		public void round(long micros, int round, String room, Board board) {
+			this.rounds++;
+		}
+
+		@Override
+		public void word(long micros, int round, String player, String word, GameRoom.Verdict verdict) {
+			this.words++;
+		}
+	}
+
+	/**
+	 * Logs a round with <code>WORDS</code> words.
+	 *
+	 * @param log
+	 *            the log
+	 * @param boggle
+	 *            the game whose board is logged
+	 */
+	private static void logRound(GameLog log, Boggle boggle) {
+		boggle.shuffleAndRoll();
+		int round = log.round("check", boggle.getBoard());
+		for (int i = 0; i < WORDS; i++) {
+			log.word(round, "player" + i, "word" + i, GameRoom.Verdict.REJECTED);
+		}
+	}
+
+	/**
+	 * Runs the check for every cut of up to the specified number of bytes.
+	 *
+	 * @param maxCut
+	 *            the largest number of bytes cut off the end of the log
+	 * @return the number of cuts tried
+	 * @throws IOException
+	 *             if a log cannot be written or read
+	 * @throws IllegalStateException
+	 *             if the second session of a log cannot be read back in full
+	 */
+	static int check(int maxCut) throws IOException {
+		Boggle boggle = new Boggle(Dictionary.read(new ByteArrayInputStream(new byte[0])), 2030);
+		Path file = Files.createTempFile("boggle", ".log");
+		try {
+			Files.delete(file);
+			try (GameLog log = GameLog.open(file)) {
+				log.seed("check", BoardSize.CLASSIC, 2030);
+				for (int i = 0; i < 3; i++) {
+					logRound(log, boggle);
+				}
+			}
+			byte[] whole = Files.readAllBytes(file);
+			int cuts = Math.min(maxCut, whole.length - 8);
+			for (int cut = 1; cut <= cuts; cut++) {
+				Files.write(file, Arrays.copyOf(whole, whole.length - cut));
+				try (GameLog log = GameLog.open(file)) {
+					logRound(log, boggle);
+				}
+				Counter counter = new Counter();
+				GameLog.read(file, counter);
+				if (counter.sessions != 2 || counter.rounds != 1 || counter.words != WORDS) {
+					throw new IllegalStateException(String.format(
+							"after cutting %d bytes, read %d sessions, and %d rounds and %d words in the last", cut,
+							counter.sessions, counter.rounds, counter.words));
+				}
+			}
+			return cuts;
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		try {
+			int cuts = check(64);
+			System.out.printf("a second session was read back after each of %d cuts%n", cuts);
+		} catch (IllegalStateException e) {
+			System.out.println("FAILED: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
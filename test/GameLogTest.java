@@ -0,0 +1,221 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GameLogTest {
+
+	/**
+	 * The number of words logged by <code>writeLog</code>, enough for the log
+	 * to be much longer than a record.
+	 */
+	private static final int WORDS = 500;
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Writes a log with a seed, a round and <code>WORDS</code> words.
+	 *
+	 * @param file
+	 *            the file to write the log to
+	 * @return the bytes of the log
+	 */
+	private byte[] writeLog(Path file) throws IOException {
+		Boggle boggle = new Boggle(Dictionary.read(new ByteArrayInputStream(new byte[0])), 2030);
+		boggle.shuffleAndRoll();
+		try (GameLog log = GameLog.open(file)) {
+			log.seed("room", BoardSize.CLASSIC, 2030);
+			int round = log.round("room", boggle.getBoard());
+			for (int i = 0; i < WORDS; i++) {
+				log.word(round, "player" + i, "word" + i, GameRoom.Verdict.REJECTED);
+			}
+		}
+		return Files.readAllBytes(file);
+	}
+
+	/**
+	 * Returns the specified log with the specified bytes inserted after its
+	 * header.
+	 */
+	private static byte[] insertAfterHeader(byte[] log, int... record) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(log, 0, 8);
+		for (int b : record) {
+			out.write(b);
+		}
+		out.write(log, 8, log.length - 8);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Checks that opening and reading the specified log fail, and that opening
+	 * it does not truncate it.
+	 */
+	private static void assertCorrupt(Path file) throws IOException {
+		long size = Files.size(file);
+		assertThrows(IOException.class, () -> GameLog.open(file));
+		assertEquals(size, Files.size(file));
+		assertThrows(IOException.class, () -> GameLog.read(file, new GameLog.Visitor() {
+		}));
+	}
+
+	@Test
+	public void tornTail() throws IOException {
+		assertTrue(GameLogCheck.check(64) > 0);
+	}
+
+	@Test
+	public void readBack() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		this.writeLog(file);
+		int[] counts = new int[3];
+		GameLog.read(file, new GameLog.Visitor() {
+			@Override
+			public void seed(long micros, String room, BoardSize size, long seed) {
+				counts[0]++;
+			}
+
+			@Override
+			public void round(long micros, int round, String room, Board board) {
+				counts[1]++;
+			}
+
+			@Override
+			public void word(long micros, int round, String player, String word, GameRoom.Verdict verdict) {
+				counts[2]++;
+			}
+		});
+		assertEquals(1, counts[0]);
+		assertEquals(1, counts[1]);
+		assertEquals(WORDS, counts[2]);
+	}
+
+	@Test
+	public void corruptType() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		byte[] log = this.writeLog(file);
+		Files.write(file, insertAfterHeader(log, 0x7f));
+		assertCorrupt(file);
+	}
+
+	@Test
+	public void underflowInTheMiddle() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		byte[] log = this.writeLog(file);
+		// a seed record whose name is longer than the rest of the file
+		Files.write(file, insertAfterHeader(log, 2, 0, 0xff, 0xff, 0x3f));
+		assertCorrupt(file);
+	}
+
+	@Test
+	public void badBoardSize() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		byte[] log = this.writeLog(file);
+		// a seed record for a board with 9 rows
+		Files.write(file, insertAfterHeader(log, 2, 0, 1, 'r', 9, 0, 0, 0, 0, 0, 0, 0, 0));
+		assertCorrupt(file);
+	}
+
+	@Test
+	public void tornTailOnly() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		byte[] log = this.writeLog(file);
+		// the same record cut short at the end of the file is dropped
+		byte[] torn = Arrays.copyOf(log, log.length + 5);
+		System.arraycopy(new byte[] { 2, 0, (byte) 0xff, (byte) 0xff, 0x3f }, 0, torn, log.length, 5);
+		Files.write(file, torn);
+		try (GameLog reopened = GameLog.open(file)) {
+			reopened.seed("room", BoardSize.CLASSIC, 2030);
+		}
+		int[] seeds = new int[1];
+		GameLog.read(file, new GameLog.Visitor() {
+			@Override
+			public void seed(long micros, String room, BoardSize size, long seed) {
+				seeds[0]++;
+			}
+		});
+		assertEquals(2, seeds[0]);
+	}
+
+	@Test
+	public void writeFailure() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		GameLog log = GameLog.open(channel, file);
+		log.flush();
+		// the next write fails with a ClosedChannelException
+		channel.close();
+		log.word(0, "player", "word", GameRoom.Verdict.REJECTED);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			UncheckedIOException e = assertThrows(UncheckedIOException.class, log::flush);
+			assertInstanceOf(ClosedChannelException.class, e.getCause());
+			assertThrows(UncheckedIOException.class,
+					() -> log.word(0, "player", "word", GameRoom.Verdict.REJECTED));
+			assertThrows(IOException.class, log::close);
+		});
+	}
+
+	@Test
+	public void writerDeath() throws IOException {
+		Path file = this.dir.resolve("game.log");
+		Files.createFile(file);
+		// the writer thread fails with a NonWritableChannelException
+		GameLog log = GameLog.open(FileChannel.open(file, StandardOpenOption.READ), file);
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			UncheckedIOException e = assertThrows(UncheckedIOException.class, log::flush);
+			assertInstanceOf(NonWritableChannelException.class, e.getCause().getCause());
+			assertThrows(UncheckedIOException.class, log::flush);
+			assertThrows(UncheckedIOException.class,
+					() -> log.word(0, "player", "word", GameRoom.Verdict.REJECTED));
+			assertThrows(IOException.class, log::close);
+		});
+	}
+
+	@Test
+	public void closed() throws IOException {
+		GameLog log = GameLog.open(this.dir.resolve("game.log"));
+		log.close();
+		log.close();
+		assertThrows(UncheckedIOException.class, log::flush);
+		assertThrows(UncheckedIOException.class, () -> log.round("room", new Board(new byte[16])));
+	}
+
+	@Test
+	public void badArguments() throws IOException {
+		try (GameLog log = GameLog.open(this.dir.resolve("game.log"))) {
+			String tooLong = "a".repeat(GameLog.MAX_STRING_LENGTH + 1);
+			assertThrows(NullPointerException.class, () -> log.seed(null, BoardSize.CLASSIC, 0));
+			assertThrows(NullPointerException.class, () -> log.seed("room", null, 0));
+			assertThrows(NullPointerException.class, () -> log.round("room", null));
+			assertThrows(NullPointerException.class, () -> log.word(0, "player", null, GameRoom.Verdict.ACCEPTED));
+			assertThrows(NullPointerException.class, () -> log.word(0, "player", "word", null));
+			assertThrows(IllegalArgumentException.class, () -> log.seed(tooLong, BoardSize.CLASSIC, 0));
+			assertThrows(IllegalArgumentException.class,
+					() -> log.word(0, tooLong, "word", GameRoom.Verdict.ACCEPTED));
+			// the log is still usable
+			log.word(0, "player", "word", GameRoom.Verdict.ACCEPTED);
+			log.flush();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+	/**
+	 * Returns the largest value of the bucket that counts the specified
+	 * value, as reported for the median of the value and a larger value.
+	 */
+	private static long bucketOf(long value) {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(value);
+		h.record(Long.MAX_VALUE);
+		return h.getValueAtPercentile(50);
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		// every value below 16 has a bucket of its own
+		for (long v = 0; v < 16; v++) {
+			assertEquals(v, bucketOf(v));
+		}
+		// then every power of two is split into 8 buckets
+		assertEquals(17, bucketOf(16));
+		assertEquals(17, bucketOf(17));
+		assertEquals(19, bucketOf(18));
+		assertEquals(31, bucketOf(30));
+		assertEquals(35, bucketOf(32));
+		assertEquals(1023, bucketOf(960));
+		assertEquals(1023, bucketOf(1023));
+		assertEquals(1151, bucketOf(1024));
+		assertEquals(Long.MAX_VALUE, bucketOf(Long.MAX_VALUE));
+		assertEquals(Long.MAX_VALUE, bucketOf(Long.MAX_VALUE - (Long.MAX_VALUE >>> 4)));
+		assertEquals(Long.MAX_VALUE - (Long.MAX_VALUE >>> 4) - 1, bucketOf(Long.MAX_VALUE - (Long.MAX_VALUE >>> 4) - 1));
+	}
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int v = 1; v <= 100; v++) {
+			h.record(v);
+		}
+		assertEquals(100, h.getCount());
+		assertEquals(50.5, h.getMean());
+		assertEquals(100, h.getMaximum());
+		assertEquals(1, h.getValueAtPercentile(0));
+		assertEquals(10, h.getValueAtPercentile(10));
+		// 50 is counted in the bucket from 48 to 51
+		assertEquals(51, h.getValueAtPercentile(50));
+		// 99 is counted in the bucket from 96 to 103, but nothing above 100
+		// was recorded
+		assertEquals(100, h.getValueAtPercentile(99));
+		assertEquals(100, h.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void withinAnEighth() {
+		SplittableRandom rng = new SplittableRandom(2030);
+		LatencyHistogram h = new LatencyHistogram();
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = rng.nextLong(1L << rng.nextInt(1, 40));
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double p : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+			long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+			long reported = h.getValueAtPercentile(p);
+			assertTrue(reported >= exact && reported <= exact + exact / 8, p + ": " + reported + " for " + exact);
+		}
+	}
+
+	@Test
+	public void emptyAndNegative() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(0, h.getValueAtPercentile(99));
+		assertEquals(0, h.getMean());
+		h.record(-5);
+		assertEquals(1, h.getCount());
+		assertEquals(0, h.getValueAtPercentile(100));
+		assertThrows(IllegalArgumentException.class, () -> h.getValueAtPercentile(-1));
+		assertThrows(IllegalArgumentException.class, () -> h.getValueAtPercentile(100.5));
+		assertThrows(IllegalArgumentException.class, () -> h.getValueAtPercentile(Double.NaN));
+	}
+}
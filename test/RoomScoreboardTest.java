@@ -0,0 +1,170 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RoomScoreboardTest {
+
+	private Boggle boggle;
+
+	/**
+	 * The words on the board of the game, in alphabetical order.
+	 */
+	private List<String> words;
+
+	@BeforeEach
+	public void roll() {
+		this.boggle = new Boggle(DictionaryRegistry.getDefault(), 2030);
+		this.boggle.shuffleAndRoll();
+		this.words = new ArrayList<String>(this.boggle.getAllWords().keySet());
+		assertTrue(this.words.size() >= 3, "the board has fewer than three words");
+	}
+
+	private RoomScoreboard scoreboard() {
+		return new RoomScoreboard(this.boggle, this.boggle.getBoard());
+	}
+
+	@Test
+	public void wordFoundByOnePlayer() {
+		RoomScoreboard s = this.scoreboard();
+		String w0 = this.words.get(0);
+		String w1 = this.words.get(1);
+		assertEquals(GameRoom.Verdict.ACCEPTED, s.submit("alice", w0));
+		assertEquals(GameRoom.Verdict.ACCEPTED, s.submit("bob", w1));
+		Map<String, Integer> expected = new TreeMap<String, Integer>();
+		expected.put("alice", BoggleScorer.pointsFor(w0));
+		expected.put("bob", BoggleScorer.pointsFor(w1));
+		assertEquals(expected, s.getFinalScores());
+	}
+
+	@Test
+	public void wordFoundByTwoPlayers() {
+		RoomScoreboard s = this.scoreboard();
+		String w0 = this.words.get(0);
+		assertEquals(GameRoom.Verdict.ACCEPTED, s.submit("alice", w0));
+		assertEquals(GameRoom.Verdict.ACCEPTED, s.submit("bob", w0));
+		// both players keep the points until the word is cancelled
+		assertEquals(BoggleScorer.pointsFor(w0), s.getProvisionalScore("alice"));
+		assertEquals(BoggleScorer.pointsFor(w0), s.getProvisionalScore("bob"));
+		Map<String, Integer> expected = new TreeMap<String, Integer>();
+		expected.put("alice", 0);
+		expected.put("bob", 0);
+		assertEquals(expected, s.getFinalScores());
+		assertEquals(1, s.getWordCount());
+	}
+
+	@Test
+	public void sharedAndOwnWords() {
+		RoomScoreboard s = this.scoreboard();
+		String w0 = this.words.get(0);
+		String w1 = this.words.get(1);
+		String w2 = this.words.get(2);
+		s.submit("alice", w0);
+		s.submit("alice", w1);
+		s.submit("bob", w1);
+		s.submit("bob", w2);
+		s.submit("carol", w0);
+		Map<String, Integer> expected = new TreeMap<String, Integer>();
+		expected.put("alice", 0);
+		expected.put("bob", BoggleScorer.pointsFor(w2));
+		expected.put("carol", 0);
+		assertEquals(expected, s.getFinalScores());
+	}
+
+	@Test
+	public void rejectedAndDuplicateWords() {
+		RoomScoreboard s = this.scoreboard();
+		String w0 = this.words.get(0);
+		assertEquals(GameRoom.Verdict.REJECTED, s.submit("alice", "zzzz"));
+		assertEquals(GameRoom.Verdict.ACCEPTED, s.submit("alice", w0));
+		assertEquals(GameRoom.Verdict.DUPLICATE, s.submit("alice", w0.toUpperCase(Locale.ROOT)));
+		assertEquals(BoggleScorer.pointsFor(w0), s.getProvisionalScore("alice"));
+		assertEquals(Map.of("alice", BoggleScorer.pointsFor(w0)), s.getFinalScores());
+	}
+
+	@Test
+	public void concurrentSubmissions() throws InterruptedException {
+		// every player submits a fixed set of words, some of them twice
+		int players = 40;
+		List<List<String>> submissions = new ArrayList<List<String>>();
+		for (int p = 0; p < players; p++) {
+			SplittableRandom rng = new SplittableRandom(p);
+			List<String> list = new ArrayList<String>();
+			for (int i = 0; i < 50; i++) {
+				list.add(this.words.get(rng.nextInt(this.words.size())));
+			}
+			submissions.add(list);
+		}
+		RoomScoreboard sequential = this.scoreboard();
+		for (int p = 0; p < players; p++) {
+			for (String w : submissions.get(p)) {
+				sequential.submit("player" + p, w);
+			}
+		}
+
+		RoomScoreboard concurrent = this.scoreboard();
+		int threads = 4;
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			int first = t;
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				// the threads take turns word by word, so players overlap
+				for (int i = 0; i < 50; i++) {
+					for (int p = first; p < players; p += threads) {
+						concurrent.submit("player" + p, submissions.get(p).get(i));
+					}
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertEquals(sequential.getFinalScores(), concurrent.getFinalScores());
+		assertEquals(sequential.getWordCount(), concurrent.getWordCount());
+		for (int p = 0; p < players; p++) {
+			assertEquals(sequential.getProvisionalScore("player" + p), concurrent.getProvisionalScore("player" + p));
+		}
+	}
+
+	@Test
+	public void caseInTurkishLocale() {
+		Locale locale = Locale.getDefault();
+		try {
+			Locale.setDefault(Locale.forLanguageTag("tr"));
+			String word = null;
+			for (String w : this.words) {
+				if (w.indexOf('i') >= 0) {
+					word = w;
+					break;
+				}
+			}
+			assumeTrue(word != null, "no word on the board has an i");
+			RoomScoreboard scoreboard = this.scoreboard();
+			assertEquals(GameRoom.Verdict.ACCEPTED, scoreboard.submit("player", word.toUpperCase(Locale.ROOT)));
+			assertEquals(GameRoom.Verdict.DUPLICATE, scoreboard.submit("player", word));
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+}
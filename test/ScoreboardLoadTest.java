@@ -0,0 +1,107 @@
+package eecs2030.lab4;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A command-line load test for <code>RoomScoreboard</code>. A number of
+ * threads submit words for a number of simulated players to a single
+ * scoreboard as fast as they can for a fixed amount of time, then the test
+ * prints the submission rate and checks the final scores.
+ *
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java -cp target/classes:target/test-classes eecs2030.lab4.ScoreboardLoadTest [threads [players [seconds]]]
+ * </pre>
+ *
+ * <p>
+ * The number of threads defaults to the number of processors, the number of
+ * players to 1000 and the length of the test to 10 seconds. Half of the
+ * submissions are words on the board and half are dictionary words that are
+ * usually not on the board, so every kind of verdict is exercised.
+ */
+public class ScoreboardLoadTest {
+
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int players = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		long seconds = args.length > 2 ? Long.parseLong(args[2]) : 10;
+		if (!run(threads, players, TimeUnit.SECONDS.toMillis(seconds))) {
+			System.out.println("FAILED: the scoreboard is inconsistent");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs the load test and prints its results.
+	 *
+	 * @param threads
+	 *            the number of threads submitting words
+	 * @param players
+	 *            the number of simulated players
+	 * @param millis
+	 *            the length of the test in milliseconds
+	 * @return true if the final scores are consistent with the provisional
+	 *         scores and the words on the board
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting for the test
+	 */
+	static boolean run(int threads, int players, long millis) throws InterruptedException {
+		Dictionary dictionary = DictionaryRegistry.getDefault();
+		Boggle boggle = new Boggle(dictionary, 2030);
+		boggle.shuffleAndRoll();
+		String[] answers = boggle.getAllWords().keySet().toArray(new String[0]);
+		String[] words = dictionary.wordsStartingWith("").toArray(new String[0]);
+		RoomScoreboard scoreboard = new RoomScoreboard(boggle, boggle.getBoard());
+
+		LongAdder submissions = new LongAdder();
+		LongAdder accepted = new LongAdder();
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			long seed = t;
+			Thread worker = new Thread(() -> {
+				SplittableRandom rng = new SplittableRandom(seed);
+				while (System.nanoTime() - end < 0) {
+					String player = "player" + rng.nextInt(players);
+					String word;
+					if (rng.nextBoolean() && answers.length > 0) {
+						word = answers[rng.nextInt(answers.length)];
+					} else {
+						word = words[rng.nextInt(words.length)];
+					}
+					if (scoreboard.submit(player, word) == GameRoom.Verdict.ACCEPTED) {
+						accepted.increment();
+					}
+					submissions.increment();
+				}
+				done.countDown();
+			});
+			worker.start();
+		}
+		done.await();
+
+		long start = System.nanoTime();
+		Map<String, Integer> scores = scoreboard.getFinalScores();
+		long scoringMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+		long provisional = 0;
+		long total = 0;
+		for (Map.Entry<String, Integer> e : scores.entrySet()) {
+			provisional += scoreboard.getProvisionalScore(e.getKey());
+			total += e.getValue();
+		}
+		System.out.printf("threads:          %d%n", threads);
+		System.out.printf("submissions:      %d (%.0f per second)%n", submissions.sum(),
+				submissions.sum() * 1000.0 / millis);
+		System.out.printf("accepted:         %d, %d distinct words%n", accepted.sum(), scoreboard.getWordCount());
+		System.out.printf("final scores:     %d players, %d points (%d before cancelling) in %d us%n",
+				scores.size(), total, provisional, scoringMicros);
+		return total <= provisional && scoreboard.getWordCount() <= answers.length;
+	}
+}
@@ -0,0 +1,113 @@
+package eecs2030.lab4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class TrieTest {
+
+	private static final Trie WORDS = trie("ca", "cab", "cat", "cats", "cb", "cz", "czar", "dog", "zoo");
+
+	private static Trie trie(String... words) {
+		Trie.Builder builder = new Trie.Builder();
+		for (String w : words) {
+			builder.add(w);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns every word the iterator of the specified trie returns.
+	 */
+	private static List<String> words(Trie trie, String prefix, String after) {
+		List<String> list = new ArrayList<String>();
+		Iterator<String> it = trie.iterator(prefix, after);
+		while (it.hasNext()) {
+			list.add(it.next());
+		}
+		return list;
+	}
+
+	@Test
+	public void allWords() {
+		assertEquals(List.of("ca", "cab", "cat", "cats", "cb", "cz", "czar", "dog", "zoo"), words(WORDS, "", null));
+		assertEquals(List.of("ca", "cab", "cat", "cats"), words(WORDS, "CA", null));
+		assertEquals(List.of(), words(WORDS, "cx", null));
+	}
+
+	@Test
+	public void seekToAPresentWord() {
+		assertEquals(List.of("cats", "cb", "cz", "czar", "dog", "zoo"), words(WORDS, "", "cat"));
+		assertEquals(List.of("cab", "cat", "cats"), words(WORDS, "ca", "ca"));
+		assertEquals(List.of("cats"), words(WORDS, "ca", "CAT"));
+	}
+
+	@Test
+	public void seekToAnAbsentWord() {
+		// below a node that is not a word, and past the end of a branch
+		assertEquals(List.of("ca", "cab", "cat", "cats", "cb", "cz", "czar", "dog", "zoo"), words(WORDS, "", "c"));
+		assertEquals(List.of("cat", "cats", "cb", "cz", "czar", "dog", "zoo"), words(WORDS, "", "cac"));
+		assertEquals(List.of("cb", "cz", "czar", "dog", "zoo"), words(WORDS, "", "catz"));
+		assertEquals(List.of("dog", "zoo"), words(WORDS, "", "czb"));
+	}
+
+	@Test
+	public void seekPastTheEnd() {
+		assertEquals(List.of(), words(WORDS, "", "zoo"));
+		assertEquals(List.of(), words(WORDS, "", "zz"));
+		assertEquals(List.of(), words(WORDS, "ca", "cb"));
+		// a cursor before the prefix does not skip anything
+		assertEquals(List.of("ca", "cab", "cat", "cats"), words(WORDS, "ca", "b"));
+	}
+
+	@Test
+	public void seekSkipsEarlierLetters() {
+		// the cursor's letters are a, b and z, the lowest, a middle and the
+		// highest bit of a mask of children
+		Trie trie = trie("aa", "ab", "ac", "az", "ba", "bz", "za", "zz");
+		assertEquals(List.of("ab", "ac", "az", "ba", "bz", "za", "zz"), words(trie, "", "aa"));
+		assertEquals(List.of("ac", "az", "ba", "bz", "za", "zz"), words(trie, "", "ab"));
+		assertEquals(List.of("ba", "bz", "za", "zz"), words(trie, "", "az"));
+		assertEquals(List.of("zz"), words(trie, "", "za"));
+		assertEquals(List.of("za", "zz"), words(trie, "", "bz"));
+	}
+
+	@Test
+	public void badCursor() {
+		assertThrows(IllegalArgumentException.class, () -> WORDS.iterator("", "ca-t"));
+	}
+
+	@Test
+	public void defaultDictionary() {
+		// every seek returns the same words as a sorted set of the words
+		Trie trie = DictionaryRegistry.getDefault().trie();
+		NavigableSet<String> all = new TreeSet<String>(words(trie, "", null));
+		assertEquals(trie.wordCount(), all.size());
+		List<String> list = new ArrayList<String>(all);
+		SplittableRandom rng = new SplittableRandom(2030);
+		for (int i = 0; i < 200; i++) {
+			String word = list.get(rng.nextInt(list.size()));
+			String prefix = word.substring(0, rng.nextInt(Math.min(3, word.length()) + 1));
+			// the word itself, a word that is absent, and a word past the
+			// prefix
+			for (String after : new String[] { word, word + "zz", prefix + "zzzz" }) {
+				List<String> expected = new ArrayList<String>();
+				for (String w : all.tailSet(after, false)) {
+					if (!w.startsWith(prefix)) {
+						break;
+					}
+					expected.add(w);
+				}
+				assertEquals(expected, words(trie, prefix, after), prefix + " after " + after);
+			}
+		}
+	}
+}